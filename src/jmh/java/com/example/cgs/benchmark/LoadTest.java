@@ -0,0 +1,167 @@
+package com.example.cgs.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test against a running server, for comparing request handling on
+ * platform threads with {@code spring.threads.virtual.enabled=true}.
+ *
+ * Each simulated session logs in once, then requests the given paths in turn, sending the next
+ * request as soon as the previous response arrives. Reports throughput and latency percentiles
+ * over the measurement window. Start the server once per mode and run the same load against both:
+ * <pre>
+ * java -jar target/*.jar                                          (platform threads)
+ * java -jar target/*.jar --spring.threads.virtual.enabled=true    (virtual threads, Java 21+)
+ *
+ * mvn -P benchmarks compile exec:java -Dexec.mainClass=com.example.cgs.benchmark.LoadTest \
+ *     -Dexec.args="http://localhost:8090 --sessions 2000 --email user@example.com --password secret"
+ * </pre>
+ *
+ * Options: {@code --sessions} (2000), {@code --warmup} and {@code --duration} in seconds (10, 30),
+ * {@code --email} and {@code --password} of an existing user, and {@code --paths}, a comma
+ * separated list (/api/recommend-courses,/api/matching-jobs,/viewplaylist/1).
+ */
+public class LoadTest {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final URI base;
+
+    private final List<String> paths;
+
+    // Latencies in microseconds of requests completed inside the measurement window
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private volatile boolean measuring;
+
+    private volatile boolean running = true;
+
+    LoadTest(URI base, List<String> paths) {
+        this.base = base;
+        this.paths = paths;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadTest <base url> [--sessions n] [--warmup s] [--duration s] "
+                    + "[--email e] [--password p] [--paths a,b,c]");
+            System.exit(2);
+        }
+        URI base = URI.create(args[0]);
+        int sessions = 2000;
+        int warmup = 10;
+        int duration = 30;
+        String email = null;
+        String password = null;
+        List<String> paths = List.of("/api/recommend-courses", "/api/matching-jobs", "/viewplaylist/1");
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--sessions" -> sessions = Integer.parseInt(value);
+                case "--warmup" -> warmup = Integer.parseInt(value);
+                case "--duration" -> duration = Integer.parseInt(value);
+                case "--email" -> email = value;
+                case "--password" -> password = value;
+                case "--paths" -> paths = Arrays.asList(value.split(","));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        LoadTest test = new LoadTest(base, paths);
+        test.run(sessions, email, password, warmup, duration);
+    }
+
+    private void run(int sessions, String email, String password, int warmup, int duration) throws Exception {
+        System.out.printf("Logging in %d sessions...%n", sessions);
+        List<CompletableFuture<Void>> loops = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            loops.add(login(email, password).thenCompose(cookie -> loop(cookie, 0)));
+        }
+
+        Thread.sleep(warmup * 1000L);
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration * 1000L);
+        measuring = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running = false;
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("sessions=%d requests=%d errors=%d throughput=%.1f req/s%n",
+                sessions, sorted.length, errors.get(), sorted.length / seconds);
+        System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                percentile(sorted, 99.9), percentile(sorted, 100));
+    }
+
+    /**
+     * Logs in and returns the session cookie, or null to run without a session.
+     */
+    private CompletableFuture<String> login(String email, String password) {
+        if (email == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String body = String.format("{\"email\":\"%s\",\"password\":\"%s\"}", email, password);
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Login failed with " + response.statusCode());
+                    }
+                    return response.headers().firstValue("Set-Cookie")
+                            .map(cookie -> cookie.split(";", 2)[0])
+                            .orElse(null);
+                });
+    }
+
+    private CompletableFuture<Void> loop(String cookie, int next) {
+        if (!running) {
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(paths.get(next % paths.size())))
+                .timeout(Duration.ofSeconds(60));
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+        long start = System.nanoTime();
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    boolean recorded = measuring;
+                    if (error != null || response.statusCode() >= 400) {
+                        if (recorded) {
+                            errors.incrementAndGet();
+                        }
+                    } else if (recorded) {
+                        latencies.add((System.nanoTime() - start) / 1000);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(cookie, next + 1));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cgs.benchmark;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.Skill;
+import com.example.cgs.service.CourseSkillIndex;
+import com.example.cgs.service.ScoringEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Scaling of course ranking with the number of {@link ScoringEngine} workers, on catalogs above
+ * the parallel threshold. {@code parallelism = 1} is the sequential path. Compare results only
+ * on a machine with at least as many cores as the largest parallelism:
+ * <pre>
+ * mvn -P benchmarks compile exec:exec -Djmh.args="ParallelScoringBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelScoringBenchmark {
+
+    @Param({"200000", "500000"})
+    public int catalogSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private CourseSkillIndex index;
+
+    private Set<String> userSkills;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42);
+        index = new CourseSkillIndex(new ScoringEngine(parallelism, ScoringEngine.DEFAULT_PARALLEL_THRESHOLD));
+        for (Courses course : catalog.courses(catalogSize)) {
+            index.put(course);
+        }
+        userSkills = catalog.userSkills(20).stream()
+                .map(skill -> Skill.normalize(skill.getSkill()))
+                .collect(Collectors.toSet());
+        // Build the ranking snapshot outside the measurement
+        index.recommendMissing(userSkills, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        index.shutdown();
+    }
+
+    @Benchmark
+    public List<Courses> rankAllCoursesForUserSkills() {
+        return index.recommendMissing(userSkills);
+    }
+
+    @Benchmark
+    public CourseSkillIndex.TopCourses rankFirstPageForUserSkills() {
+        return index.recommendMissing(userSkills, 10);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.cgs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one BCrypt password check at each strength, for choosing
+ * {@code cgs.password.bcrypt-strength}. Run on the production hardware; every step of strength
+ * doubles the time, and a login costs one check on the password pool:
+ * <pre>
+ * mvn -P benchmarks compile exec:exec -Djmh.args="PasswordHashingBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+}
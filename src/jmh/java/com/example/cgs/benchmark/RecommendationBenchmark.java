@@ -0,0 +1,95 @@
+package com.example.cgs.benchmark;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.Skill;
+import com.example.cgs.service.CourseSkillIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Course recommendation hot paths of RecommendationController, which delegate to
+ * {@link CourseSkillIndex}:
+ * <ul>
+ *     <li>{@link #findMissingSkillsFromAllCourses()}: skills taught somewhere that the user lacks;</li>
+ *     <li>{@link #recommendCoursesForMissingSkills()}: ranking for an explicit missing set that is
+ *     nearly the whole vocabulary;</li>
+ *     <li>{@link #recommendCoursesForUserSkills()}: ranking for the no-career-goal path, scored
+ *     against the complement of the user's skill bitset;</li>
+ *     <li>{@link #recommendFirstPageForUserSkills()}: the same, keeping only the first page of 10;</li>
+ *     <li>{@link #recommendCoursesForJobSkills()}: ranking for a resolved career goal, where the
+ *     missing set is the handful of skills the job requires;</li>
+ *     <li>{@link #searchCoursesBySkill()}: the /api/courses/by-skill search box query.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    private CourseSkillIndex index;
+
+    private Set<String> userSkills;
+
+    private Set<String> missingSkills;
+
+    private Set<String> jobSkills;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42);
+        index = new CourseSkillIndex();
+        for (Courses course : catalog.courses(catalogSize)) {
+            index.put(course);
+        }
+
+        List<Skill> skills = catalog.userSkills(20);
+        userSkills = skills.stream()
+                .map(skill -> Skill.normalize(skill.getSkill()))
+                .collect(Collectors.toSet());
+        missingSkills = index.missingSkills(userSkills);
+        jobSkills = catalog.skillNames(10).stream()
+                .map(Skill::normalize)
+                .filter(skill -> !userSkills.contains(skill))
+                .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public Set<String> findMissingSkillsFromAllCourses() {
+        return index.missingSkills(userSkills);
+    }
+
+    @Benchmark
+    public List<Courses> recommendCoursesForMissingSkills() {
+        return index.recommend(missingSkills);
+    }
+
+    @Benchmark
+    public List<Courses> recommendCoursesForUserSkills() {
+        return index.recommendMissing(userSkills);
+    }
+
+    @Benchmark
+    public CourseSkillIndex.TopCourses recommendFirstPageForUserSkills() {
+        return index.recommendMissing(userSkills, 10);
+    }
+
+    @Benchmark
+    public List<Courses> recommendCoursesForJobSkills() {
+        return index.recommend(jobSkills);
+    }
+
+    @Benchmark
+    public List<Courses> searchCoursesBySkill() {
+        return index.search("Skill 123");
+    }
+}
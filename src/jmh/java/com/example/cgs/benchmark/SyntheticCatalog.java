@@ -0,0 +1,94 @@
+package com.example.cgs.benchmark;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.JobPosting;
+import com.example.cgs.entities.Skill;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic courses, job postings and user skills for the benchmarks.
+ */
+public final class SyntheticCatalog {
+
+    public static final int VOCABULARY_SIZE = 2_000;
+
+    private final Random random;
+
+    public SyntheticCatalog(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static String skillName(int number) {
+        return "Skill " + number;
+    }
+
+    /**
+     * @param count How many courses to create.
+     * @return Courses with IDs 1..count, each teaching 3 to 8 skills.
+     */
+    public List<Courses> courses(int count) {
+        List<Courses> courses = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Courses course = new Courses();
+            course.setId((long) i);
+            course.setCourseTitle("Course " + i);
+            List<Skill> skills = new ArrayList<>();
+            for (String name : skillNames(3 + random.nextInt(6))) {
+                Skill skill = new Skill();
+                skill.setSkill(name);
+                skills.add(skill);
+            }
+            course.setSkills(skills);
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    /**
+     * @param count How many job postings to create.
+     * @return Job postings with IDs 1..count, each requiring 3 to 8 comma-separated skills.
+     */
+    public List<JobPosting> jobPostings(int count) {
+        List<JobPosting> postings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            JobPosting posting = new JobPosting();
+            posting.setId((long) i);
+            posting.setJobTitle("Job " + i);
+            posting.setRequiredSkills(String.join(", ", skillNames(3 + random.nextInt(6))));
+            postings.add(posting);
+        }
+        return postings;
+    }
+
+    /**
+     * @param count How many skills the user has.
+     * @return Skill entities as they would be attached to a user profile.
+     */
+    public List<Skill> userSkills(int count) {
+        List<Skill> skills = new ArrayList<>();
+        for (String name : skillNames(count)) {
+            Skill skill = new Skill();
+            skill.setSkill(name);
+            skill.setLevel("Intermediate");
+            skills.add(skill);
+        }
+        return skills;
+    }
+
+    /**
+     * @param count How many distinct skills to draw.
+     * @return Distinct skill names drawn from the shared vocabulary.
+     */
+    public Set<String> skillNames(int count) {
+        Set<String> names = new LinkedHashSet<>();
+        while (names.size() < count) {
+            names.add(skillName(random.nextInt(VOCABULARY_SIZE)));
+        }
+        return names;
+    }
+}
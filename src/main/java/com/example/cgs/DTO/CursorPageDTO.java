@@ -0,0 +1,63 @@
+package com.example.cgs.DTO;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * One page of a keyset-paginated list. Rows are ordered by ID; pass {@code nextCursor} as the
+ * {@code after} parameter to fetch the following page.
+ */
+public class CursorPageDTO<T> {
+
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+
+    private Long nextCursor;
+
+    public CursorPageDTO(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @param limit The page size requested by the client.
+     * @return A request for the first {@code limit} rows, with the limit clamped to 1..{@value #MAX_LIMIT}.
+     */
+    public static Pageable pageRequest(int limit) {
+        return PageRequest.ofSize(Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * Wraps a fetched page. A full page gets the ID of its last row as the next cursor, since
+     * more rows may follow; a shorter page is the last one.
+     *
+     * @param items The rows fetched with {@link #pageRequest(int)}.
+     * @param pageable The request the rows were fetched with.
+     * @param idOf Extracts a row's ID.
+     * @return The page.
+     */
+    public static <T> CursorPageDTO<T> of(List<T> items, Pageable pageable, Function<T, Long> idOf) {
+        Long nextCursor = items.size() == pageable.getPageSize() ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.cgs.DTO;
+
+import java.util.List;
+
+/**
+ * One page of a ranked list. Pages are addressed by offset, since the order is by score rather
+ * than by ID; {@code total} counts every ranked item, so clients can show a count without
+ * fetching them all.
+ */
+public class RankedPageDTO<T> {
+
+    public static final int MAX_LIMIT = 100;
+
+    private List<T> items;
+
+    private int offset;
+
+    private int total;
+
+    public RankedPageDTO(List<T> items, int offset, int total) {
+        this.items = items;
+        this.offset = offset;
+        this.total = total;
+    }
+
+    /**
+     * @param limit The page size requested by the client.
+     * @return The limit clamped to 1..{@value #MAX_LIMIT}.
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.cgs.config;
+
+import com.example.cgs.service.CatalogChangeListener;
+import com.example.cgs.service.CatalogVersion;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Registers {@link CatalogChangeListener} with Hibernate, so catalog writes made through any
+ * repository or session bump the {@link CatalogVersion}.
+ */
+@Configuration
+public class CatalogEventsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer catalogEventsCustomizer(CatalogVersion catalogVersion) {
+        CatalogChangeListener listener = new CatalogChangeListener(catalogVersion);
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_INSERT, listener);
+                registry.appendListeners(EventType.POST_UPDATE, listener);
+                registry.appendListeners(EventType.POST_DELETE, listener);
+                registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+                registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(integrator));
+    }
+}
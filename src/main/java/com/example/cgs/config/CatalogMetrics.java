@@ -0,0 +1,29 @@
+package com.example.cgs.config;
+
+import com.example.cgs.service.CourseSkillIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the size of the course catalog, read from the in-memory skill index so scraping
+ * never queries the database.
+ */
+@Component
+public class CatalogMetrics implements MeterBinder {
+
+    @Autowired
+    private CourseSkillIndex courseSkillIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cgs.catalog.courses", courseSkillIndex, CourseSkillIndex::size)
+                .description("Courses in the catalog")
+                .register(registry);
+        Gauge.builder("cgs.catalog.skills", courseSkillIndex, index -> index.allSkills().size())
+                .description("Distinct skills taught by the catalog's courses")
+                .register(registry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.cgs.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Logback turbo filter that lets debug events from the application's loggers through, whatever
+ * their configured level, while the current request has diagnostics switched on.
+ *
+ * Registered in logback-spring.xml; the MDC flag is set by {@link RequestDiagnosticsFilter}.
+ */
+public class DiagnosticsTurboFilter extends TurboFilter {
+
+    private static final String APPLICATION_PACKAGE = "com.example.cgs";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.DEBUG)
+                && logger.getName().startsWith(APPLICATION_PACKAGE)
+                && MDC.get(RequestDiagnosticsFilter.DIAGNOSTICS_KEY) != null) {
+            return FilterReply.ACCEPT;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
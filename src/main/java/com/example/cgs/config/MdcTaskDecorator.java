@@ -0,0 +1,43 @@
+package com.example.cgs.config;
+
+import com.example.cgs.service.RequestSqlStats;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Carries the submitting thread's MDC (request ID and diagnostics flag, see
+ * {@link RequestDiagnosticsFilter}) and SQL stats (see {@link SqlTimingFilter}) over to tasks run
+ * on the application task executor, so work a request hands off is still logged and counted
+ * under that request.
+ */
+@Component
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        RequestSqlStats sqlStats = RequestSqlStats.current();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            RequestSqlStats previousSqlStats = RequestSqlStats.bind(sqlStats);
+            if (context == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(context);
+            }
+            try {
+                task.run();
+            } finally {
+                RequestSqlStats.restore(previousSqlStats);
+                if (previous == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(previous);
+                }
+            }
+        };
+    }
+}
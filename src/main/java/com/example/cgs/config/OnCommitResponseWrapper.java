@@ -0,0 +1,70 @@
+package com.example.cgs.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * A response wrapper that gets one last chance to add headers before the response commits:
+ * {@link #onCommit()} runs on the first call that can send the headers, and filters call
+ * {@link #commit()} after the chain for responses that had no body.
+ */
+abstract class OnCommitResponseWrapper extends HttpServletResponseWrapper {
+
+    private boolean committed;
+
+    OnCommitResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Adds headers to the wrapped response. Runs at most once, while it is not yet committed.
+     */
+    protected abstract void onCommit();
+
+    void commit() {
+        if (!committed && !getResponse().isCommitted()) {
+            committed = true;
+            onCommit();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        commit();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        commit();
+        return super.getWriter();
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        commit();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        commit();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        commit();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        commit();
+        super.flushBuffer();
+    }
+}
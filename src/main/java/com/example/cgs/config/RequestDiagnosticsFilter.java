@@ -0,0 +1,63 @@
+package com.example.cgs.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tags every request's log lines with a request ID and switches on debug-level diagnostics for
+ * the application's own loggers when the caller asks for them.
+ *
+ * Diagnostics are enabled for a single request with the {@value #DIAGNOSTICS_HEADER} header, or
+ * for a whole session with the {@value #DIAGNOSTICS_SESSION_ATTRIBUTE} session attribute (see
+ * {@link com.example.cgs.controller.DiagnosticsController}). {@link DiagnosticsTurboFilter} does the level override.
+ */
+@Component
+// After TokenSessionFilter, so the session flag is read from whichever session is in use
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestDiagnosticsFilter extends OncePerRequestFilter {
+
+    public static final String DIAGNOSTICS_HEADER = "X-Diagnostics";
+
+    public static final String DIAGNOSTICS_SESSION_ATTRIBUTE = "diagnostics";
+
+    public static final String REQUEST_ID_KEY = "requestId";
+
+    public static final String DIAGNOSTICS_KEY = "diagnostics";
+
+    private final AtomicLong requestCounter = new AtomicLong();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        MDC.put(REQUEST_ID_KEY, Long.toString(requestCounter.incrementAndGet(), 36));
+        if (diagnosticsRequested(request)) {
+            MDC.put(DIAGNOSTICS_KEY, "on");
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(DIAGNOSTICS_KEY);
+            MDC.remove(REQUEST_ID_KEY);
+        }
+    }
+
+    private boolean diagnosticsRequested(HttpServletRequest request) {
+        String header = request.getHeader(DIAGNOSTICS_HEADER);
+        if (header != null && (header.equalsIgnoreCase("on") || header.equalsIgnoreCase("true"))) {
+            return true;
+        }
+        HttpSession session = request.getSession(false);
+        return session != null && Boolean.TRUE.equals(session.getAttribute(DIAGNOSTICS_SESSION_ATTRIBUTE));
+    }
+}
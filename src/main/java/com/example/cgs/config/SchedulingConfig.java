@@ -0,0 +1,12 @@
+package com.example.cgs.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} methods, such as the nightly recommendation report.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
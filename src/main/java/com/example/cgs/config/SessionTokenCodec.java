@@ -0,0 +1,127 @@
+package com.example.cgs.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes session attributes into a signed token and back.
+ *
+ * A token is {@code <payload>.<signature>}, both base64url: the payload is a small JSON object
+ * with the attributes and the issue and expiry times, the signature its HMAC-SHA256 under
+ * {@code cgs.session.token-secret}. Every instance configured with the same secret accepts
+ * every other instance's tokens, so nothing about a session is kept on the server.
+ */
+@Component
+@ConditionalOnProperty(name = "cgs.session.mode", havingValue = "token")
+public class SessionTokenCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenCodec.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Initialized once and cloned per use, since a Mac is not thread-safe
+    private final Mac prototype;
+
+    private final Duration ttl;
+
+    /**
+     * The attributes and lifetime of a verified token.
+     */
+    public record Token(Map<String, Object> attributes, long issuedAt, long expiresAt) {
+    }
+
+    // The JSON payload; short names keep the cookie small
+    private record Payload(Map<String, Object> a, long iat, long exp) {
+    }
+
+    public SessionTokenCodec(@Value("${cgs.session.token-secret:}") String secret,
+                             @Value("${cgs.session.token-ttl:30m}") Duration ttl) throws GeneralSecurityException {
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < 32) {
+            // A short or missing secret would make every session forgeable
+            throw new IllegalStateException("cgs.session.token-secret must be at least 32 bytes in token session mode");
+        }
+        this.prototype = Mac.getInstance(ALGORITHM);
+        this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        this.ttl = ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * @param attributes The session attributes; strings and booleans only.
+     * @param issuedAt When the token is issued, in epoch milliseconds.
+     * @return A signed token valid for the configured TTL from {@code issuedAt}.
+     */
+    public String encode(Map<String, Object> attributes, long issuedAt) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(new Payload(attributes, issuedAt, issuedAt + ttl.toMillis()));
+            String encoded = ENCODER.encodeToString(payload);
+            return encoded + "." + ENCODER.encodeToString(sign(encoded));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode session token", e);
+        }
+    }
+
+    /**
+     * @param token A token from a request cookie.
+     * @param now The current time, in epoch milliseconds.
+     * @return The token's contents, or {@code null} if it is malformed, forged or expired.
+     */
+    public Token decode(String token, long now) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String encoded = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(encoded), DECODER.decode(token.substring(dot + 1)))) {
+                log.warn("Rejected a session token with an invalid signature");
+                return null;
+            }
+            Payload payload = objectMapper.readValue(DECODER.decode(encoded), new TypeReference<Payload>() {
+            });
+            if (payload.exp() <= now || payload.a() == null) {
+                return null;
+            }
+            return new Token(new LinkedHashMap<>(payload.a()), payload.iat(), payload.exp());
+        } catch (IllegalArgumentException | IOException e) {
+            // Not base64 or not our JSON
+            log.debug("Rejected a malformed session token", e);
+            return null;
+        }
+    }
+
+    private byte[] sign(String encoded) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(encoded.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
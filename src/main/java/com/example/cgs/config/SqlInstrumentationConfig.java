@@ -0,0 +1,46 @@
+package com.example.cgs.config;
+
+import com.example.cgs.service.SqlMetrics;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes every statement through a datasource-proxy layer that reports to {@link SqlMetrics},
+ * in place of {@code spring.jpa.show-sql}, and registers {@link SqlTimingFilter} to report it
+ * per request.
+ */
+@Configuration
+public class SqlInstrumentationConfig {
+
+    // Static, so wrapping the data source does not pull this configuration in early
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourceWrapper(ObjectProvider<SqlMetrics> sqlMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(sqlMetrics.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlTimingFilter> sqlTimingFilter(SqlMetrics sqlMetrics) {
+        FilterRegistrationBean<SqlTimingFilter> registration = new FilterRegistrationBean<>(new SqlTimingFilter(sqlMetrics));
+        // After the session and diagnostics filters
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.cgs.config;
+
+import com.example.cgs.service.RequestSqlStats;
+import com.example.cgs.service.SqlMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Collects the SQL each request runs and reports it in a {@code Server-Timing} header, e.g.
+ * {@code db;dur=12.5;desc="7 queries"}, which browser dev tools show next to the request's own
+ * timing, plus the slowest statement's time when there were several. Totals per controller
+ * method go to {@link SqlMetrics}. Registered by {@link SqlInstrumentationConfig}.
+ */
+public class SqlTimingFilter extends OncePerRequestFilter {
+
+    // Keeps one request's stats across its async dispatches
+    private static final String STATS_ATTRIBUTE = SqlTimingFilter.class.getName() + ".STATS";
+
+    private final SqlMetrics sqlMetrics;
+
+    public SqlTimingFilter(SqlMetrics sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The async dispatch writes the response, and may run statements of its own
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = (RequestSqlStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = new RequestSqlStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        RequestSqlStats previous = RequestSqlStats.bind(stats);
+        ServerTimingResponse wrappedResponse = new ServerTimingResponse(response, stats);
+        try {
+            chain.doFilter(request, wrappedResponse);
+        } finally {
+            RequestSqlStats.restore(previous);
+        }
+        if (!request.isAsyncStarted()) {
+            wrappedResponse.commit();
+            // Only requests a controller handled; static files never reach the database
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+                sqlMetrics.requestFinished(handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName(), stats);
+            }
+        }
+    }
+
+    private static final class ServerTimingResponse extends OnCommitResponseWrapper {
+
+        private final RequestSqlStats stats;
+
+        ServerTimingResponse(HttpServletResponse response, RequestSqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onCommit() {
+            String timing = String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d queries\"",
+                    stats.getTotalNanos() / 1e6, stats.getQueries());
+            if (stats.getQueries() > 1) {
+                timing += String.format(Locale.ROOT, ", db-slowest;dur=%.1f", stats.getSlowestNanos() / 1e6);
+            }
+            addHeader("Server-Timing", timing);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cgs.config;
+
+import com.example.cgs.service.StaticAssetPipeline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves images, scripts and stylesheets under content-hashed URLs.
+ *
+ * Templates link assets with {@code @{/style/style.css}}, which is rewritten to
+ * {@code /style/style-<md5>.css}. Hashed URLs never change content, so browsers keep them for a
+ * year without revalidating. Plain URLs, still used by script fallbacks, are revalidated on every
+ * use and answered with 304 while the file is unchanged. Both serve the precompressed copy
+ * written by {@link StaticAssetPipeline} when the client accepts gzip.
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    // A file name ending in the 32 hex digits the content version strategy appends
+    private static final String HASHED_FILE = "{file:.+-[0-9a-f]{32}\\.[A-Za-z0-9]+}";
+
+    @Value("${cgs.assets.dir}")
+    private String assetsDir;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String directory : StaticAssetPipeline.DIRECTORIES) {
+            // Generated files first, then the packaged originals
+            String[] locations = {
+                    Paths.get(assetsDir, directory).toUri().toString().replaceAll("/?$", "/"),
+                    "classpath:/static/" + directory + "/"
+            };
+            registry.addResourceHandler("/" + directory + "/" + HASHED_FILE)
+                    .addResourceLocations(locations)
+                    .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations(locations)
+                    .setCacheControl(CacheControl.noCache().cachePublic())
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+}
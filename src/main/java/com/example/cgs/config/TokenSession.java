@@ -0,0 +1,150 @@
+package com.example.cgs.config;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An {@link HttpSession} whose attributes come from, and go back into, a signed session token.
+ * Controllers use it exactly like a container session; {@link TokenSessionFilter} writes the
+ * token cookie when an attribute changes.
+ */
+class TokenSession implements HttpSession {
+
+    private final ServletContext servletContext;
+
+    private final Map<String, Object> attributes;
+
+    private final long creationTime;
+
+    private final int maxInactiveInterval;
+
+    private final boolean isNew;
+
+    private boolean dirty;
+
+    private boolean invalidated;
+
+    TokenSession(ServletContext servletContext, Map<String, Object> attributes, long creationTime,
+                 int maxInactiveInterval, boolean isNew) {
+        this.servletContext = servletContext;
+        this.attributes = new LinkedHashMap<>(attributes);
+        this.creationTime = creationTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.isNew = isNew;
+    }
+
+    Map<String, Object> attributes() {
+        return attributes;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void markDirty() {
+        dirty = true;
+    }
+
+    void clean() {
+        dirty = false;
+    }
+
+    boolean isInvalidated() {
+        return invalidated;
+    }
+
+    @Override
+    public long getCreationTime() {
+        checkValid();
+        return creationTime;
+    }
+
+    // Tokens carry no ID; this only has to be stable for the request
+    @Override
+    public String getId() {
+        return Long.toString(creationTime, 36);
+    }
+
+    @Override
+    public long getLastAccessedTime() {
+        checkValid();
+        return creationTime;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    // The lifetime is the token's TTL, the same for every session
+    @Override
+    public void setMaxInactiveInterval(int interval) {
+    }
+
+    @Override
+    public int getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        checkValid();
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        checkValid();
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        checkValid();
+        if (value == null) {
+            removeAttribute(name);
+            return;
+        }
+        // Anything else would not come back out of the token's JSON as the same type
+        if (!(value instanceof String) && !(value instanceof Boolean)) {
+            throw new IllegalArgumentException("Only string and boolean session attributes fit in a session token: " + name);
+        }
+        if (!value.equals(attributes.put(name, value))) {
+            dirty = true;
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        checkValid();
+        if (attributes.remove(name) != null) {
+            dirty = true;
+        }
+    }
+
+    // Clears the cookie; the token itself stays valid until it expires
+    @Override
+    public void invalidate() {
+        checkValid();
+        attributes.clear();
+        invalidated = true;
+        dirty = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        checkValid();
+        return isNew;
+    }
+
+    private void checkValid() {
+        if (invalidated) {
+            throw new IllegalStateException("Session already invalidated");
+        }
+    }
+}
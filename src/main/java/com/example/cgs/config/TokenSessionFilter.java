@@ -0,0 +1,196 @@
+package com.example.cgs.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Replaces the container session with a {@link TokenSession} carried in a signed cookie when
+ * {@code cgs.session.mode=token}, so no session state is kept in the heap and a session survives
+ * a restart or a move to another instance.
+ *
+ * This alone does not make several instances behind a load balancer safe: the course skill
+ * index, the catalog version, the second-level cache, and the recommendation and user identity
+ * caches are all per instance and only see writes made on it, so other instances serve stale
+ * data until they restart.
+ *
+ * Invalidating the session, as logout does, only clears the cookie. The server keeps no record of
+ * issued tokens, so a copy of the token taken before logout is accepted until it expires, and is
+ * renewed like any other if it is used after half of {@code cgs.session.token-ttl}.
+ *
+ * The cookie is only read when something asks for the session, and only written when an
+ * attribute changed, the session was invalidated, or the token is past half its lifetime. It
+ * is written just before the response commits, since headers cannot be added afterwards.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "cgs.session.mode", havingValue = "token")
+public class TokenSessionFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "CGS_SESSION";
+
+    // Keeps one request's session across its async dispatches
+    private static final String STATE_ATTRIBUTE = TokenSessionFilter.class.getName() + ".STATE";
+
+    @Autowired
+    private SessionTokenCodec codec;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Async handlers such as login set attributes before the response is written
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        State state = (State) request.getAttribute(STATE_ATTRIBUTE);
+        if (state == null) {
+            state = new State(request);
+            request.setAttribute(STATE_ATTRIBUTE, state);
+        }
+        StateResponse wrappedResponse = new StateResponse(response, state);
+        chain.doFilter(new StateRequest(request, state), wrappedResponse);
+        if (!request.isAsyncStarted()) {
+            wrappedResponse.commit();
+        }
+    }
+
+    private final class State {
+
+        private final HttpServletRequest request;
+
+        private TokenSession session;
+
+        private boolean resolved;
+
+        State(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        HttpSession getSession(boolean create) {
+            if (!resolved) {
+                resolved = true;
+                session = readCookie();
+            }
+            if (session != null && !session.isInvalidated()) {
+                return session;
+            }
+            if (!create) {
+                return null;
+            }
+            boolean replacesInvalidated = session != null;
+            session = new TokenSession(request.getServletContext(), Map.of(), System.currentTimeMillis(),
+                    (int) codec.getTtl().toSeconds(), true);
+            if (replacesInvalidated) {
+                // Still has to clear the old cookie if nothing is set on the new session
+                session.markDirty();
+            }
+            return session;
+        }
+
+        private TokenSession readCookie() {
+            Cookie[] cookies = request.getCookies();
+            if (cookies == null) {
+                return null;
+            }
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    long now = System.currentTimeMillis();
+                    SessionTokenCodec.Token token = codec.decode(cookie.getValue(), now);
+                    if (token == null) {
+                        return null;
+                    }
+                    TokenSession restored = new TokenSession(request.getServletContext(), token.attributes(),
+                            token.issuedAt(), (int) codec.getTtl().toSeconds(), false);
+                    // Sliding expiry: reissue once half the lifetime is gone
+                    if (token.expiresAt() - now < codec.getTtl().toMillis() / 2) {
+                        restored.markDirty();
+                    }
+                    return restored;
+                }
+            }
+            return null;
+        }
+
+        void writeCookie(HttpServletResponse response) {
+            if (session == null || !session.isDirty() || response.isCommitted()) {
+                return;
+            }
+            ResponseCookie.ResponseCookieBuilder cookie;
+            if (session.isInvalidated() || session.attributes().isEmpty()) {
+                cookie = ResponseCookie.from(COOKIE_NAME, "").maxAge(0);
+            } else {
+                cookie = ResponseCookie.from(COOKIE_NAME, codec.encode(session.attributes(), System.currentTimeMillis()));
+            }
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.path("/").httpOnly(true).secure(request.isSecure())
+                    .sameSite("Lax").build().toString());
+            session.clean();
+        }
+    }
+
+    private static final class StateRequest extends HttpServletRequestWrapper {
+
+        private final State state;
+
+        StateRequest(HttpServletRequest request, State state) {
+            super(request);
+            this.state = state;
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            return state.getSession(create);
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return state.getSession(true);
+        }
+
+        @Override
+        public String changeSessionId() {
+            HttpSession session = state.getSession(false);
+            if (session == null) {
+                throw new IllegalStateException("No session to change the ID of");
+            }
+            return session.getId();
+        }
+
+        @Override
+        public boolean isRequestedSessionIdValid() {
+            return state.getSession(false) != null;
+        }
+    }
+
+    // Writes the session cookie on the first call that can commit the response
+    private static final class StateResponse extends OnCommitResponseWrapper {
+
+        private final State state;
+
+        StateResponse(HttpServletResponse response, State state) {
+            super(response);
+            this.state = state;
+        }
+
+        @Override
+        protected void onCommit() {
+            state.writeCookie((HttpServletResponse) getResponse());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cgs.controller;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheStatsController {
+
+    // Every JCache cache with statistics enabled registers one of these
+    private static final String STATISTICS_QUERY = "javax.cache:type=CacheStatistics,*";
+
+    /**
+     * Hit, miss and eviction counts of every second-level cache region since startup.
+     *
+     * @param session The HTTP session of the caller.
+     * @return The counters keyed by region name, or 403 if the session is not an admin's.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getCacheStats(HttpSession session) throws MalformedObjectNameException {
+        String userType = (String) session.getAttribute("userType");
+        if (userType == null || !userType.equals("admin")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"message\":\"Admin only\"}");
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Map<String, Map<String, Object>> regions = new TreeMap<>();
+        for (ObjectName name : server.queryNames(new ObjectName(STATISTICS_QUERY), null)) {
+            CacheStatisticsMXBean statistics = JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class);
+            Map<String, Object> counters = new LinkedHashMap<>();
+            counters.put("hits", statistics.getCacheHits());
+            counters.put("misses", statistics.getCacheMisses());
+            counters.put("hitPercentage", statistics.getCacheHitPercentage());
+            counters.put("puts", statistics.getCachePuts());
+            counters.put("evictions", statistics.getCacheEvictions());
+            counters.put("removals", statistics.getCacheRemovals());
+            regions.put(name.getKeyProperty("Cache"), counters);
+        }
+        return ResponseEntity.ok(regions);
+    }
+}
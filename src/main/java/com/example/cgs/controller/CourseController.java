@@ -1,10 +1,19 @@
 package com.example.cgs.controller;
 
+import com.example.cgs.DTO.CursorPageDTO;
 import com.example.cgs.entities.Courses;
 import com.example.cgs.repositories.CoursesRepository;
+import com.example.cgs.service.CatalogJsonCache;
+import com.example.cgs.service.CourseSkillIndex;
+import com.example.cgs.service.NdjsonStreamer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -13,18 +22,54 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/courses")
 public class CourseController {
 
+    private static final Logger log = LoggerFactory.getLogger(CourseController.class);
+
     @Autowired
     private CoursesRepository coursesRepository;
 
+    @Autowired
+    private CourseSkillIndex courseSkillIndex;
+
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+
+    @Autowired
+    private CatalogJsonCache catalogJsonCache;
+
     /**
-     * Fetch all courses.
+     * Fetch all courses, serialized once per catalog version.
      *
-     * @return List of all courses.
+     * @param request The current request, used to answer conditional requests.
+     * @return List of all courses as JSON, or 304 if the catalog hasn't changed.
      */
     @GetMapping
-    public ResponseEntity<List<Courses>> getAllCourses() {
-        List<Courses> courses = coursesRepository.findAll();
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<byte[]> getAllCourses(WebRequest request) {
+        return catalogJsonCache.respond("courses", coursesRepository::findAll, request);
+    }
+
+    /**
+     * Fetch one page of courses in ID order.
+     *
+     * @param limit Maximum number of courses to return (at most 500).
+     * @param after ID of the last course of the previous page; omit for the first page.
+     * @return The page and the cursor for the next one.
+     */
+    @GetMapping(params = {"limit", "format!=ndjson"})
+    public ResponseEntity<CursorPageDTO<Courses>> getCoursesPage(@RequestParam int limit,
+                                                                @RequestParam(defaultValue = "0") Long after) {
+        Pageable page = CursorPageDTO.pageRequest(limit);
+        List<Courses> courses = coursesRepository.findByIdGreaterThanOrderByIdAsc(after, page);
+        return ResponseEntity.ok(CursorPageDTO.of(courses, page, Courses::getId));
+    }
+
+    /**
+     * Stream all courses as newline-delimited JSON without holding them in memory.
+     *
+     * @return One course per line, in ID order.
+     */
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllCourses() {
+        return ndjsonStreamer.stream(coursesRepository::streamAllByOrderByIdAsc);
     }
 
     /**
@@ -48,13 +93,16 @@ public class CourseController {
      */
     @PostMapping
     public ResponseEntity<Courses> addCourse(@RequestBody Courses course) {
-        // Debug print
-        System.out.println("Adding new course: " + course.getCourseTitle());
-        System.out.println("Course skills: " + course.getSkills().stream()
-            .map(skill -> skill.getSkill())
-            .collect(Collectors.joining(", ")));
-        
-        return ResponseEntity.ok(coursesRepository.save(course));
+        if (log.isDebugEnabled()) {
+            log.debug("Adding new course: {}", course.getCourseTitle());
+            log.debug("Course skills: {}", course.getSkills() != null ? course.getSkills().stream()
+                .map(skill -> skill.getSkill())
+                .collect(Collectors.joining(", ")) : "None");
+        }
+
+        Courses savedCourse = coursesRepository.save(course);
+        courseSkillIndex.put(savedCourse);
+        return ResponseEntity.ok(savedCourse);
     }
 
     /**
@@ -66,10 +114,9 @@ public class CourseController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<Courses> updateCourse(@PathVariable Long id, @RequestBody Courses course) {
-        System.out.println("Updating course with ID: " + id);
-        System.out.println("Course data received: " + course.getCourseTitle());
-        System.out.println("Trainer name: " + course.getName());
-        System.out.println("Skills count: " + (course.getSkills() != null ? course.getSkills().size() : "null"));
+        log.debug("Updating course with ID: {}", id);
+        log.debug("Course data received: {}, trainer: {}, skills count: {}", course.getCourseTitle(), course.getName(),
+                course.getSkills() != null ? course.getSkills().size() : "null");
         
         var existingCourseOpt = coursesRepository.findById(id);
         if (existingCourseOpt.isEmpty()) {
@@ -77,7 +124,7 @@ public class CourseController {
         }
         
         Courses existingCourse = existingCourseOpt.get();
-        System.out.println("Found existing course: " + existingCourse.getCourseTitle());
+        log.debug("Found existing course: {}", existingCourse.getCourseTitle());
         
         try {
             // Update basic course information
@@ -97,11 +144,11 @@ public class CourseController {
             }
             
             Courses updatedCourse = coursesRepository.save(existingCourse);
-            System.out.println("Course updated successfully: " + updatedCourse.getCourseTitle());
+            courseSkillIndex.put(updatedCourse);
+            log.debug("Course updated successfully: {}", updatedCourse.getCourseTitle());
             return ResponseEntity.ok(updatedCourse);
         } catch (Exception e) {
-            System.err.println("Error saving course: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error saving course {}", id, e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -117,32 +164,25 @@ public class CourseController {
         return coursesRepository.findById(id)
                 .map(course -> {
                     coursesRepository.delete(course);
+                    courseSkillIndex.remove(id);
                     return ResponseEntity.ok("deleted the course"); // Explicitly set type to Void
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Fetch courses that teach a specific skill.
+     * Fetch courses that teach a specific skill, best matches first.
      *
-     * @param skill The skill name to search for.
-     * @return List of courses that teach the specified skill.
+     * @param skill The skill name, or part of it, to search for.
+     * @return List of courses with a skill containing the search text, or contained in it.
      */
     @GetMapping("/by-skill")
     public ResponseEntity<List<Courses>> getCoursesBySkill(@RequestParam String skill) {
-        System.out.println("Searching for courses with skill: " + skill);
+        log.debug("Searching for courses with skill: {}", skill);
         
-        List<Courses> allCourses = coursesRepository.findAll();
-        List<Courses> matchingCourses = allCourses.stream()
-                .filter(course -> course.getSkills() != null && 
-                        course.getSkills().stream()
-                                .anyMatch(courseSkill -> 
-                                    courseSkill.getSkill().toLowerCase().contains(skill.toLowerCase()) ||
-                                    skill.toLowerCase().contains(courseSkill.getSkill().toLowerCase())
-                                ))
-                .collect(Collectors.toList());
+        List<Courses> matchingCourses = courseSkillIndex.search(skill);
         
-        System.out.println("Found " + matchingCourses.size() + " courses for skill: " + skill);
+        log.debug("Found {} courses for skill: {}", matchingCourses.size(), skill);
         return ResponseEntity.ok(matchingCourses);
     }
 }
@@ -1,33 +1,44 @@
 package com.example.cgs.controller;
 
+import com.example.cgs.service.JobSkillsCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/data")
 public class DataController {
 
     @Autowired
-    private ResourceLoader resourceLoader;
+    private JobSkillsCatalog jobSkillsCatalog;
 
+    /**
+     * Serve the job skills mapping as the bytes read at startup (or at the last reload).
+     *
+     * @param request The current request, used to answer conditional requests.
+     * @return The mapping JSON, or 304 if the client's copy is still current.
+     */
     @GetMapping("/job-skills-mapping")
-    public ResponseEntity<String> getJobSkillsMapping() {
-        try {
-            Resource resource = resourceLoader.getResource("classpath:static/data/job-skills-mapping.json");
-            byte[] bytes = resource.getInputStream().readAllBytes();
-            String content = new String(bytes, StandardCharsets.UTF_8);
-            return ResponseEntity.ok(content);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Error loading job skills mapping: " + e.getMessage());
+    public ResponseEntity<byte[]> getJobSkillsMapping(WebRequest request) {
+        JobSkillsCatalog.Snapshot snapshot = jobSkillsCatalog.snapshot();
+
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
         }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.getJson());
     }
 }
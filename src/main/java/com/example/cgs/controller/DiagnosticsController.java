@@ -0,0 +1,37 @@
+package com.example.cgs.controller;
+
+import com.example.cgs.config.RequestDiagnosticsFilter;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    /**
+     * Turn debug diagnostics on or off for every request of the current (admin) session.
+     *
+     * @param enabled Whether diagnostics should be logged.
+     * @param session The HTTP session to flag.
+     * @return The new state, or 403 if the session is not an admin's.
+     */
+    @PutMapping("/session")
+    public ResponseEntity<String> setSessionDiagnostics(@RequestParam boolean enabled, HttpSession session) {
+        String userType = (String) session.getAttribute("userType");
+        if (userType == null || !userType.equals("admin")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"message\":\"Admin only\"}");
+        }
+
+        if (enabled) {
+            session.setAttribute(RequestDiagnosticsFilter.DIAGNOSTICS_SESSION_ATTRIBUTE, Boolean.TRUE);
+        } else {
+            session.removeAttribute(RequestDiagnosticsFilter.DIAGNOSTICS_SESSION_ATTRIBUTE);
+        }
+        return ResponseEntity.ok("{\"diagnostics\":" + enabled + "}");
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.cgs.controller;
 
+import com.example.cgs.DTO.CursorPageDTO;
 import com.example.cgs.entities.JobPosting;
 import com.example.cgs.entities.Skill;
 import com.example.cgs.entities.UserProfile;
 import com.example.cgs.repositories.JobPostingRepository;
-import com.example.cgs.repositories.UserProfileRepository;
+import com.example.cgs.service.CatalogJsonCache;
+import com.example.cgs.service.NdjsonStreamer;
+import com.example.cgs.service.UserProfileService;
 
 import jakarta.servlet.http.HttpSession;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -17,6 +23,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import java.util.*;
@@ -25,17 +34,25 @@ import java.util.stream.Collectors;
 @Controller
 public class JobController {
 
+    private static final Logger log = LoggerFactory.getLogger(JobController.class);
+
     @Autowired
-    private UserProfileRepository userProfileRepository;
+    private UserProfileService userProfileService;
 
     @Autowired
     private JobPostingRepository jobPostingRepository;
 
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+
+    @Autowired
+    private CatalogJsonCache catalogJsonCache;
+
     /**
      * Get job postings matching the user's skills.
      *
      * @param session The HTTP session to retrieve the user's email.
-     * @return A list of job postings that match the user's skills.
+     * @return The job postings sharing at least one skill with the user, most shared skills first.
      */
     @GetMapping("/api/matching-jobs")
     public ResponseEntity<List<JobPosting>> getMatchingJobs(HttpSession session) {
@@ -45,43 +62,58 @@ public class JobController {
             return ResponseEntity.badRequest().body(Collections.emptyList());
         }
 
-        // Fetch the user's profile using the email
-        UserProfile user = userProfileRepository.findByEmail(userEmail);
-
-        List<Skill> userSkills = user.getSkills();
+        // Fetch the user's profile by the ID resolved for the email
+        UserProfile user = userProfileService.getUserProfileByEmail(userEmail);
+        if (user == null || user.getSkills() == null) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
 
-        // Fetch all job postings
-        List<JobPosting> jobPostings = jobPostingRepository.findAll();
+        Set<String> userSkills = user.getSkills().stream()
+                .map(skill -> Skill.normalize(skill.getSkill()))
+                .filter(skill -> skill != null && !skill.isEmpty())
+                .collect(Collectors.toSet());
+        if (userSkills.isEmpty()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
 
-        // Filter jobs that match at least one of the user's skills
-        List<JobPosting> matchingJobs = jobPostings.stream()
-                .filter(job -> matchesUserSkills(userSkills, job.getRequiredSkills()))
-                .collect(Collectors.toList());
+        // Matching and ranking run in the database against the indexed job_posting_skill table
+        return ResponseEntity.ok(jobPostingRepository.findMatchingSkillsRankedByOverlap(userSkills));
+    }
 
-        return ResponseEntity.ok(matchingJobs);
+    /**
+     * Fetch all job postings, serialized once per catalog version.
+     *
+     * @param request The current request, used to answer conditional requests.
+     * @return List of all postings as JSON, or 304 if the catalog hasn't changed.
+     */
+    @GetMapping("/api/jobs")
+    public ResponseEntity<byte[]> getAllMessages(WebRequest request) {
+        return catalogJsonCache.respond("jobs", jobPostingRepository::findAll, request);
     }
 
     /**
-     * Check if the user's skills match the required skills for a job.
+     * Fetch one page of job postings in ID order.
      *
-     * @param userSkills   The list of user's skills.
-     * @param requiredSkills The required skills for the job (comma-separated string).
-     * @return True if the user has at least one matching skill.
+     * @param limit Maximum number of postings to return (at most 500).
+     * @param after ID of the last posting of the previous page; omit for the first page.
+     * @return The page and the cursor for the next one.
      */
-    private boolean matchesUserSkills(List<Skill> userSkills, String requiredSkills) {
-        // Convert the required skills to a list
-        List<String> requiredSkillsList = Arrays.asList(requiredSkills.split(","));
-
-        // Check if any user skill matches the required skills
-        return userSkills.stream()
-                .anyMatch(userSkill -> requiredSkillsList.stream()
-                        .anyMatch(requiredSkill -> userSkill.getSkill().equalsIgnoreCase(requiredSkill.trim())));
+    @GetMapping(value = "/api/jobs", params = {"limit", "format!=ndjson"})
+    public ResponseEntity<CursorPageDTO<JobPosting>> getJobsPage(@RequestParam int limit,
+                                                                @RequestParam(defaultValue = "0") Long after) {
+        Pageable page = CursorPageDTO.pageRequest(limit);
+        List<JobPosting> jobs = jobPostingRepository.findByIdGreaterThanOrderByIdAsc(after, page);
+        return ResponseEntity.ok(CursorPageDTO.of(jobs, page, JobPosting::getId));
     }
 
-    @GetMapping("/api/jobs")
-    public ResponseEntity<List<JobPosting>> getAllMessages() {
-        List<JobPosting> jobs = jobPostingRepository.findAll();
-        return ResponseEntity.ok(jobs);
+    /**
+     * Stream all job postings as newline-delimited JSON without holding them in memory.
+     *
+     * @return One posting per line, in ID order.
+     */
+    @GetMapping(value = "/api/jobs", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllJobs() {
+        return ndjsonStreamer.stream(jobPostingRepository::streamAllByOrderByIdAsc);
     }
 
     @GetMapping("/api/jobs/{id}")
@@ -131,9 +163,7 @@ public class JobController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Job not found");
             }
         } catch (Exception e) {
-            // Log the exception (use a logging framework in production)
-            System.err.println("Error occurred while deleting job: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error occurred while deleting job {}", id, e);
 
             // Return a generic error response
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,31 @@
+package com.example.cgs.controller;
+
+import com.example.cgs.service.PasswordService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class LoginMetricsController {
+
+    @Autowired
+    private PasswordService passwordService;
+
+    /**
+     * Login latency and the load on the password hashing pool since startup.
+     *
+     * @param session The HTTP session of the caller.
+     * @return The metrics, or 403 if the session is not an admin's.
+     */
+    @GetMapping("/api/login/metrics")
+    public ResponseEntity<?> getLoginMetrics(HttpSession session) {
+        String userType = (String) session.getAttribute("userType");
+        if (userType == null || !userType.equals("admin")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"message\":\"Admin only\"}");
+        }
+        return ResponseEntity.ok(passwordService.metrics());
+    }
+}
@@ -3,16 +3,21 @@ package com.example.cgs.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.example.cgs.DTO.CursorPageDTO;
 import com.example.cgs.entities.Message;
 import com.example.cgs.repositories.MessageRepository;
+import com.example.cgs.service.NdjsonStreamer;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -21,6 +26,9 @@ public class MessageController {
     @Autowired
     private MessageRepository messageRepository;
 
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+
     /**
      * Store a message.
      *
@@ -49,4 +57,29 @@ public class MessageController {
         List<Message> messages = messageRepository.findAll();
         return ResponseEntity.ok(messages);
     }
+
+    /**
+     * Retrieve one page of messages in ID order.
+     *
+     * @param limit Maximum number of messages to return (at most 500).
+     * @param after ID of the last message of the previous page; omit for the first page.
+     * @return The page and the cursor for the next one.
+     */
+    @GetMapping(params = {"limit", "format!=ndjson"})
+    public ResponseEntity<CursorPageDTO<Message>> getMessagesPage(@RequestParam int limit,
+                                                                 @RequestParam(defaultValue = "0") Long after) {
+        Pageable page = CursorPageDTO.pageRequest(limit);
+        List<Message> messages = messageRepository.findByIdGreaterThanOrderByIdAsc(after, page);
+        return ResponseEntity.ok(CursorPageDTO.of(messages, page, Message::getId));
+    }
+
+    /**
+     * Stream all messages as newline-delimited JSON without holding them in memory.
+     *
+     * @return One message per line, in ID order.
+     */
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllMessages() {
+        return ndjsonStreamer.stream(messageRepository::streamAllByOrderByIdAsc);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.example.cgs.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Controller
+public class MetricsDashboardController {
+
+    // Application meters; everything else comes from Spring Boot and the JVM
+    private static final String APPLICATION_PREFIX = "cgs.";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Shows request latency per endpoint, slowest in total first, and the application's own
+     * timers, distributions and gauges. Percentiles cover the last few minutes; Prometheus
+     * (/actuator/prometheus) keeps the full histograms.
+     *
+     * @param session The HTTP session of the caller.
+     * @param model The model for the dashboard template.
+     * @return The dashboard, or a redirect to the login page if the session is not an admin's.
+     */
+    @GetMapping("/admin/metrics")
+    public String metricsDashboard(HttpSession session, Model model) {
+        String userType = (String) session.getAttribute("userType");
+        if (userType == null || !userType.equals("admin")) {
+            return "redirect:/login";
+        }
+
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (Timer timer : meterRegistry.find("http.server.requests").timers()) {
+            Meter.Id id = timer.getId();
+            String name = id.getTag("method") + " " + id.getTag("uri") + " (" + id.getTag("status") + ")";
+            endpoints.add(row(name, timer.takeSnapshot(), true));
+        }
+        endpoints.sort(Comparator.comparing((Map<String, Object> row) -> (Double) row.get("total")).reversed());
+
+        List<Map<String, Object>> distributions = new ArrayList<>();
+        List<Map<String, Object>> gauges = new ArrayList<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            if (!meter.getId().getName().startsWith(APPLICATION_PREFIX)) {
+                continue;
+            }
+            String name = nameOf(meter.getId());
+            if (meter instanceof Timer timer) {
+                distributions.add(row(name + " [ms]", timer.takeSnapshot(), true));
+            } else if (meter instanceof DistributionSummary summary) {
+                distributions.add(row(name, summary.takeSnapshot(), false));
+            } else if (meter instanceof Gauge gauge) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("name", name);
+                row.put("value", gauge.value());
+                gauges.add(row);
+            }
+        }
+        distributions.sort(Comparator.comparing(row -> (String) row.get("name")));
+        gauges.sort(Comparator.comparing(row -> (String) row.get("name")));
+
+        model.addAttribute("endpoints", endpoints);
+        model.addAttribute("distributions", distributions);
+        model.addAttribute("gauges", gauges);
+        return "metricsDashboard";
+    }
+
+    // Timer snapshots hold nanoseconds and are shown in milliseconds; summaries keep their own unit
+    private static Map<String, Object> row(String name, HistogramSnapshot snapshot, boolean time) {
+        TimeUnit unit = TimeUnit.MILLISECONDS;
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", name);
+        row.put("count", snapshot.count());
+        row.put("total", time ? snapshot.total(unit) : snapshot.total());
+        row.put("mean", time ? snapshot.mean(unit) : snapshot.mean());
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            row.put("p" + Math.round(percentile.percentile() * 100), time ? percentile.value(unit) : percentile.value());
+        }
+        row.put("max", time ? snapshot.max(unit) : snapshot.max());
+        return row;
+    }
+
+    private static String nameOf(Meter.Id id) {
+        if (id.getTags().isEmpty()) {
+            return id.getName();
+        }
+        return id.getName() + id.getTags().stream().map(Tag::getValue).collect(Collectors.joining(",", " (", ")"));
+    }
+}
@@ -12,9 +12,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.cgs.entities.Playlist;
 import com.example.cgs.repositories.PlaylistRepository;
+import com.example.cgs.service.CatalogJsonCache;
 
 @RestController
 @RequestMapping("/api/playlist")
@@ -23,16 +25,19 @@ public class PlaylistController {
     @Autowired
     private PlaylistRepository playlistRepository;
 
+    @Autowired
+    private CatalogJsonCache catalogJsonCache;
+
     /**
-     * Fetch all videos (playlist) for a specific course.
+     * Fetch all videos (playlist) for a specific course, serialized once per catalog version.
      *
      * @param courseId The ID of the course.
-     * @return A list of videos for the course.
+     * @param request The current request, used to answer conditional requests.
+     * @return A list of videos for the course as JSON, or 304 if the catalog hasn't changed.
      */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<Playlist>> getPlaylistByCourse(@PathVariable Long courseId) {
-        List<Playlist> playlist = playlistRepository.findAllByCourseid(courseId);
-        return ResponseEntity.ok(playlist);
+    public ResponseEntity<byte[]> getPlaylistByCourse(@PathVariable Long courseId, WebRequest request) {
+        return catalogJsonCache.respond("playlist/" + courseId, () -> playlistRepository.findAllByCourseid(courseId), request);
     }
 
     /**
@@ -1,22 +1,27 @@
 package com.example.cgs.controller;
 
 import com.example.cgs.entities.Profile;
+import com.example.cgs.service.AvatarService;
+import com.example.cgs.service.ImageStore;
 import com.example.cgs.service.ProfileService;
 
 import jakarta.servlet.http.HttpSession;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/profile")
@@ -25,11 +30,15 @@ public class ProfileController {
     @Autowired
     private ProfileService profileService;
 
+    @Autowired
+    private AvatarService avatarService;
+
+    @Autowired
+    private ImageStore imageStore;
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
-    private static final String UPLOAD_DIR = Paths.get(System.getProperty("user.dir"), "uploads").toString();
-
 
     @PostMapping("/update")
     public ResponseEntity<String> updateProfile(
@@ -62,22 +71,14 @@ public class ProfileController {
         // Handle profile picture upload
         if (!profilePic.isEmpty()) {
             try {
-                Path uploadPath = Paths.get(UPLOAD_DIR);
-
-                // Create the directory if it does not exist
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                }
-
-                // Define the file path for saving the profile picture
-                String profilePicPath = uploadPath.resolve(profilePic.getOriginalFilename()).toString();
-
-                // Save the profile picture to the file system
-                profilePic.transferTo(new java.io.File(profilePicPath));
+                // Stored under its content hash; thumbnails are generated in the background
+                ImageStore.StoredImage image = imageStore.store(profilePic);
 
                 // Set the file path in the profile
-                profile.setProfilePic(profilePicPath);
+                profile.setProfilePic(image.path().toString());
 
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Profile picture must be a JPEG, PNG, GIF or WebP image.");
             } catch (IOException e) {
                 return ResponseEntity.internalServerError().body("Error saving profile picture: " + e.getMessage());
             }
@@ -85,35 +86,74 @@ public class ProfileController {
 
         // Save updated profile
         profileService.saveProfile(profile);
+        avatarService.evict(email);
 
         return ResponseEntity.ok("Profile updated successfully.");
     }
 
+    /**
+     * Serve the session user's profile picture. Browsers revalidate it on every use, which
+     * costs a 304 answered from memory while the picture is unchanged; pages link the hashed
+     * URL below instead.
+     *
+     * @param session The HTTP session to retrieve the user's email.
+     * @param request The current request, used to answer conditional requests.
+     * @return The picture, or 304 if the client's copy is still current.
+     */
     @GetMapping("/profile-pic")
-    public ResponseEntity<byte[]> getProfilePicture(HttpSession session) {
+    public ResponseEntity<Resource> getProfilePicture(HttpSession session, WebRequest request) {
+        return serveProfilePicture(session, request, null);
+    }
+
+    /**
+     * Serve the session user's profile picture at a URL that changes with its content, so it
+     * can be cached for a year without revalidation. Pages get this URL as {@code avatarUrl}
+     * from {@link UserController#avatarUrl}.
+     *
+     * @param hash The content hash of the picture, as returned in its ETag.
+     * @param session The HTTP session to retrieve the user's email.
+     * @param request The current request, used to answer conditional requests.
+     * @return The picture, or 404 if the user's picture no longer has this hash.
+     */
+    @GetMapping("/profile-pic/{hash}")
+    public ResponseEntity<Resource> getProfilePictureByHash(@PathVariable String hash, HttpSession session,
+                                                            WebRequest request) {
+        return serveProfilePicture(session, request, hash);
+    }
+
+    private ResponseEntity<Resource> serveProfilePicture(HttpSession session, WebRequest request, String hash) {
         // Fetch email from the session
         String email = (String) session.getAttribute("userEmail");
         if (email == null) {
             return ResponseEntity.badRequest().build(); // Handle missing email
         }
 
-        // Retrieve the profile by email
-        Profile profile = profileService.getProfileByEmail(email);
-        if (profile == null || profile.getProfilePic() == null) {
+        // Cached per user, so neither the database nor the file is read here
+        Optional<AvatarService.Avatar> found = avatarService.findByEmail(email);
+        if (found.isEmpty() || (hash != null && !hash.equals(found.get().getHash()))) {
             return ResponseEntity.notFound().build(); // No profile or picture found
         }
+        AvatarService.Avatar avatar = found.get();
 
-        try {
-            // Load the image as bytes
-            byte[] imageBytes = Files.readAllBytes(Paths.get(profile.getProfilePic()));
+        CacheControl cacheControl = hash != null
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
 
-            // Return the image as a response
-            return ResponseEntity.ok()
-                    .contentType(MediaType.IMAGE_JPEG) // Or MediaType.IMAGE_PNG based on your format
-                    .body(imageBytes);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
+        if (request.checkNotModified(avatar.getEtag(), avatar.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(avatar.getEtag())
+                    .cacheControl(cacheControl)
+                    .build();
         }
+
+        // Streamed from disk by Spring, which also answers Range requests with 206
+        return ResponseEntity.ok()
+                .contentType(avatar.getContentType())
+                .eTag(avatar.getEtag())
+                .lastModified(avatar.getLastModified())
+                .cacheControl(cacheControl)
+                .header("X-Content-Type-Options", "nosniff")
+                .body(new FileSystemResource(avatar.getPath()));
     }
 
     @GetMapping("/interests")
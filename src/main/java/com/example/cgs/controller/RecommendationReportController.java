@@ -0,0 +1,76 @@
+package com.example.cgs.controller;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.service.RecommendationReportService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recommendation-report")
+public class RecommendationReportController {
+
+    @Autowired
+    private RecommendationReportService recommendationReportService;
+
+    private static boolean isAdmin(HttpSession session) {
+        return "admin".equals(session.getAttribute("userType"));
+    }
+
+    /**
+     * Summary of the latest finished report run, including its throughput in users per second.
+     *
+     * @param session The HTTP session of the caller.
+     * @return The run, 404 if no run has finished yet, or 403 if the session is not an admin's.
+     */
+    @GetMapping
+    public ResponseEntity<?> getLatestRun(HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"message\":\"Admin only\"}");
+        }
+        return recommendationReportService.latestRun()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * One user's recommendations from the latest finished run, read from the report table.
+     *
+     * @param email The user's email.
+     * @param session The HTTP session of the caller.
+     * @return Recommended courses, best match first, or 403 if the session is not an admin's.
+     */
+    @GetMapping("/users/{email}")
+    public ResponseEntity<?> getUserReport(@PathVariable String email, HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"message\":\"Admin only\"}");
+        }
+        List<Courses> courses = recommendationReportService.reportFor(email);
+        return ResponseEntity.ok(courses);
+    }
+
+    /**
+     * Starts a report run in the background instead of waiting for the nightly one.
+     *
+     * @param session The HTTP session of the caller.
+     * @return 202 once started, 409 if a run is in progress, or 403 if the session is not an admin's.
+     */
+    @PostMapping("/run")
+    public ResponseEntity<?> startRun(HttpSession session) {
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"message\":\"Admin only\"}");
+        }
+        if (!recommendationReportService.startRun()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("{\"message\":\"A report is already running\"}");
+        }
+        return ResponseEntity.accepted().body("{\"message\":\"Report started\"}");
+    }
+}
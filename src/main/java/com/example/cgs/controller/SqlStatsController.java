@@ -0,0 +1,34 @@
+package com.example.cgs.controller;
+
+import com.example.cgs.service.SqlMetrics;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class SqlStatsController {
+
+    @Autowired
+    private SqlMetrics sqlMetrics;
+
+    /**
+     * The endpoints that spent the most time in the database since startup, with their query
+     * counts, slowest statement and how often they looked like an N+1.
+     *
+     * @param limit How many endpoints to list.
+     * @param session The HTTP session of the caller.
+     * @return The endpoints, worst first, or 403 if the session is not an admin's.
+     */
+    @GetMapping("/api/sql/stats")
+    public ResponseEntity<?> getSqlStats(@RequestParam(defaultValue = "20") int limit, HttpSession session) {
+        String userType = (String) session.getAttribute("userType");
+        if (userType == null || !userType.equals("admin")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"message\":\"Admin only\"}");
+        }
+        return ResponseEntity.ok(sqlMetrics.worstEndpoints(Math.max(limit, 0)));
+    }
+}
@@ -1,19 +1,33 @@
 package com.example.cgs.controller;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.SessionAttribute;
 
+import com.example.cgs.DTO.CursorPageDTO;
 import com.example.cgs.DTO.LoginDTO;
 import com.example.cgs.DTO.RegisterDTO;
 import com.example.cgs.DTO.playlistDTO;
@@ -25,8 +39,14 @@ import com.example.cgs.entities.Users;
 import com.example.cgs.repositories.CoursesRepository;
 import com.example.cgs.repositories.JobPostingRepository;
 import com.example.cgs.repositories.PlaylistRepository;
-import com.example.cgs.repositories.ProfilesRepository;
+import com.example.cgs.repositories.ProfileRepository;
 import com.example.cgs.repositories.UsersRepository;
+import com.example.cgs.service.AvatarService;
+import com.example.cgs.service.CourseSkillIndex;
+import com.example.cgs.service.PasswordService;
+import com.example.cgs.service.PasswordService.Verification;
+import com.example.cgs.service.ProfileService;
+import com.example.cgs.service.UserIdentityService;
 
 import jakarta.servlet.http.HttpSession;
 
@@ -34,11 +54,19 @@ import jakarta.servlet.http.HttpSession;
 @Controller
 public class UserController {
 
+	private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
 	@Autowired
 	UsersRepository usersRepository;
 
 	@Autowired
-	ProfilesRepository profileRepository;
+	ProfileRepository profileRepository;
+
+	@Autowired
+	ProfileService profileService;
+
+	@Autowired
+	UserIdentityService userIdentityService;
 
 	@Autowired
 	CoursesRepository coursesRepository;
@@ -49,6 +77,35 @@ public class UserController {
 	@Autowired
 	JobPostingRepository jobPostingRepository;
 
+	@Autowired
+	CourseSkillIndex courseSkillIndex;
+
+	@Autowired
+	PasswordService passwordService;
+
+	@Autowired
+	AvatarService avatarService;
+
+	// Spring Boot's task executor; runs on virtual threads when spring.threads.virtual.enabled is set
+	@Autowired
+	AsyncTaskExecutor applicationTaskExecutor;
+
+	/**
+	 * The URL of the session user's profile picture, for the pages' avatar images. It carries the
+	 * picture's content hash, so browsers keep it without revalidating and a new upload gets a new
+	 * URL; users without a picture get the plain URL.
+	 */
+	@ModelAttribute("avatarUrl")
+	public String avatarUrl(@SessionAttribute(name = "userEmail", required = false) String email) {
+		if (email == null) {
+			return "/api/profile/profile-pic";
+		}
+		// Cached per user, so rendering a page reads neither the database nor the file
+		return avatarService.findByEmail(email)
+				.map(avatar -> "/api/profile/profile-pic/" + avatar.getHash())
+				.orElse("/api/profile/profile-pic");
+	}
+
 	@GetMapping("/")
 	public String index() {
 		return "index";
@@ -77,6 +134,7 @@ public class UserController {
 		if (course != null) {
 			// Delete the course from the database
 			coursesRepository.delete(course);
+			courseSkillIndex.remove(id);
 			model.addAttribute("message", "Course deleted successfully");
 		} else {
 			model.addAttribute("message", "Course not found");
@@ -98,7 +156,6 @@ public class UserController {
 	@GetMapping("/jobrecommendation")
 	public String jobrecommend(Model model,HttpSession session) {
 		model.addAttribute("userType",session.getAttribute("userType"));
-		System.out.print(session.getAttribute("userType"));
 		String name=(String) session.getAttribute("name");
 		String email=(String) session.getAttribute("userEmail");
 		model.addAttribute("name", name);
@@ -161,19 +218,12 @@ public class UserController {
 
 	@GetMapping("/update")
 	public String update(HttpSession session, Model model) {
-		Profile prf = profileRepository.findByEmail((String) session.getAttribute("userEmail"));
+		Profile prf = profileService.getProfileByEmail((String) session.getAttribute("userEmail"));
 
-		// Print values of `prf` to the console
 		if (prf != null) {
-			System.out.println("Profile Details:");
-			System.out.println("Name: " + prf.getName());
-			System.out.println("Email: " + prf.getEmail());
-			System.out.println("Interests: " + prf.getInterests());
-			System.out.println("Role: " + prf.getRole());
-			System.out.println("Certification: " + prf.getCertification());
-			System.out.println("Achievements: " + prf.getAchievements());
+			log.debug("Loaded profile {} for update", prf.getId());
 		} else {
-			System.out.println("No profile found for email: " + session.getAttribute("userEmail"));
+			log.debug("No profile found for email: {}", session.getAttribute("userEmail"));
 		}
 
 		model.addAttribute("profile", prf);
@@ -191,41 +241,50 @@ public class UserController {
 	}
 
 	@PostMapping("/register")
-	public ResponseEntity<?> registerUser(@RequestBody RegisterDTO registerDTO) {
+	public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody RegisterDTO registerDTO) {
 
-		System.out.print(registerDTO.toString());
-		// Check if the email already exists
+		log.debug("Registering user {}", registerDTO.getEmail());
+		// Check if the email already exists; saves hashing a password for a taken email
 		if (usersRepository.existsByEmail(registerDTO.getEmail())) {
-			return ResponseEntity.badRequest().body("{\"message\":\"Email is already in use\"}");
+			return CompletableFuture.completedFuture(emailInUse());
 		}
 
-		// Save the user to the database
-		Users user = new Users();
-		user.setName(registerDTO.getName());
-		user.setEmail(registerDTO.getEmail());
-		user.setPassword(registerDTO.getPassword()); // For production, hash the password!
-		user.setDob(registerDTO.getDob());
+		// Hash on the password pool; the request thread is released meanwhile
+		return passwordService.hash(registerDTO.getPassword()).<ResponseEntity<?>>thenApply(hash -> {
+			// Save the user to the database
+			Users user = new Users();
+			user.setName(registerDTO.getName());
+			user.setEmail(registerDTO.getEmail());
+			user.setPassword(hash);
+			user.setDob(registerDTO.getDob());
 
-		usersRepository.save(user);
+			try {
+				usersRepository.save(user);
+			} catch (DataIntegrityViolationException e) {
+				// The unique email index caught a registration that raced past the check above
+				return emailInUse();
+			}
 
-		Profile prf = new Profile();
-		prf.setEmail(user.getEmail());
-		prf.setName(user.getName());
+			Profile prf = new Profile();
+			prf.setEmail(user.getEmail());
+			prf.setName(user.getName());
 
-		profileRepository.save(prf);
+			profileRepository.save(prf);
+			userIdentityService.evict(user.getEmail());
 
-		// Return JSON response
-		return ResponseEntity.ok("{\"message\":\"User registered successfully\"}");
+			// Return JSON response
+			return ResponseEntity.ok("{\"message\":\"User registered successfully\"}");
+		}).exceptionally(UserController::overloaded);
 	}
 
 	@PostMapping("/login")
-	public ResponseEntity<?> loginUser(@RequestBody LoginDTO loginDTO, HttpSession session) {
-
+	public CompletableFuture<ResponseEntity<?>> loginUser(@RequestBody LoginDTO loginDTO, HttpSession session) {
+		long start = System.nanoTime();
 
 		if (loginDTO.getEmail().equals("admin@gmail.com") && loginDTO.getPassword().equals("1234567890")) {
-			System.out.print("hello");
+			log.debug("Admin login");
 			session.setAttribute("userType", "admin");
-			return ResponseEntity.status(HttpStatus.OK).body("{\"message\":\"admin\"}");
+			return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.OK).body("{\"message\":\"admin\"}"));
 		}
 
 		// Fetch the user by email
@@ -234,23 +293,59 @@ public class UserController {
 		// Check if the user exists
 		if (user == null) {
 			// Return 404 (Not Found) if user is not found
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("{\"message\":\"User not found\"}");
+			return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).body("{\"message\":\"User not found\"}"));
 		}
 
-		// Check if the password matches (for production, hash the password and compare
-		// it securely)
-		if (!user.getPassword().equals(loginDTO.getPassword())) {
-			// Return 401 (Unauthorized) if password is incorrect
-			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"message\":\"Invalid password\"}");
+		// Check the password on the password pool; the request thread is released meanwhile
+		return passwordService.verify(loginDTO.getPassword(), user.getPassword()).<ResponseEntity<?>>thenApply(verification -> {
+			if (!verification.matches()) {
+				// Return 401 (Unauthorized) if password is incorrect
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"message\":\"Invalid password\"}");
+			}
+			if (verification == Verification.MATCH_NEEDS_REHASH) {
+				rehash(user, loginDTO.getPassword());
+			}
+
+			// Store the user's email in the session
+			session.setAttribute("name", user.getName());
+			session.setAttribute("userEmail", user.getEmail());
+			session.setAttribute("userType", "student");
+
+			// If login is successful, return a success message with 200 OK status
+			return ResponseEntity.status(HttpStatus.OK).body("{\"message\":\"Login successful\"}");
+		}).exceptionally(UserController::overloaded)
+				.whenComplete((response, error) -> passwordService.recordLogin(System.nanoTime() - start));
+	}
+
+	/**
+	 * Replaces a plaintext or outdated password hash in the background. The update only applies
+	 * if the stored value is still the one that was verified.
+	 */
+	private void rehash(Users user, String rawPassword) {
+		String previous = user.getPassword();
+		passwordService.hash(rawPassword).thenAccept(hash -> {
+			if (usersRepository.updatePassword(user.getId(), previous, hash) > 0) {
+				log.info("Rehashed password of user {}", user.getId());
+			}
+		}).exceptionally(error -> {
+			// Left as is; retried on the next login
+			log.warn("Could not rehash password of user {}", user.getId(), error);
+			return null;
+		});
+	}
+
+	private static ResponseEntity<?> emailInUse() {
+		return ResponseEntity.badRequest().body("{\"message\":\"Email is already in use\"}");
+	}
+
+	// Answers 503 when the password pool's queue is full, and rethrows anything else
+	private static ResponseEntity<?> overloaded(Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (cause instanceof RejectedExecutionException) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+					.body("{\"error\":\"Too many sign-ins right now. Please try again in a moment.\"}");
 		}
-
-		// Store the user's email in the session
-		session.setAttribute("name", user.getName());
-		session.setAttribute("userEmail", user.getEmail());
-		session.setAttribute("userType", "student");
-
-		// If login is successful, return a success message with 200 OK status
-		return ResponseEntity.status(HttpStatus.OK).body("{\"message\":\"Login successful\"}");
+		throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
 	}
 
 	@GetMapping("/adminDashboard")
@@ -260,16 +355,18 @@ public class UserController {
 
 	@PostMapping("/addcourse")
 	public String addcour(Courses c, Model model) {
-		coursesRepository.save(c);
+		courseSkillIndex.put(coursesRepository.save(c));
 		return "redirect:/courses";
 	}
 
 	@GetMapping("/viewplaylist/{id}")
 	public String viewPlaylist(@PathVariable("id") Long id, Model model,HttpSession session) {
 		// Retrieve the course by ID from the repository
-		session.setAttribute("courseid", id);
-		Optional<Courses> courseOptional = coursesRepository.findById(id);
-		List<Playlist> playlist=playlistRepository.findAllByCourseid(id);
+		// The two lookups are independent, so run them concurrently
+		CompletableFuture<Optional<Courses>> course = CompletableFuture.supplyAsync(() -> coursesRepository.findById(id), applicationTaskExecutor);
+		CompletableFuture<List<Playlist>> playlists = CompletableFuture.supplyAsync(() -> playlistRepository.findAllByCourseid(id), applicationTaskExecutor);
+		Optional<Courses> courseOptional = course.join();
+		List<Playlist> playlist = playlists.join();
 
 		if (courseOptional.isPresent()) {
 			// If course is found, add it to the model
@@ -290,21 +387,22 @@ public class UserController {
 	}
 	
 	@GetMapping("/deleteplaylist/{id}")
-	public String deletePlaylist(@PathVariable("id") Long id ,HttpSession session) {
-		
-		Long cid=(Long)session.getAttribute("courseid");
+	public String deletePlaylist(@PathVariable("id") Long id, @RequestParam(value = "courseid", required = false) Long courseId) {
 	    // Your delete logic here, for example:
 	    playlistRepository.deleteById(id);
 	
-	    
-	    // Redirect to another page (e.g., playlist list) after deletion
-	    return "redirect:/viewplaylist/"+cid;
+	    // Back to the course the video was deleted from, passed along by its page
+	    if (courseId == null) {
+	    	return "redirect:/playlistmanagement";
+	    }
+	    return "redirect:/viewplaylist/"+courseId;
 	}
 
 
 	@GetMapping("/addvideo/{id}")
-	public String addvideo(@PathVariable("id") String id, HttpSession session) {
-		session.setAttribute("playlistid", id);
+	public String addvideo(@PathVariable("id") Long id, Model model) {
+		// The form posts the course ID back along with the video
+		model.addAttribute("courseid", id);
 		return "addPlaylist";
 	}
 	
@@ -358,27 +456,19 @@ public class UserController {
 			return "redirect:/login"; // Redirect to login page if the user is not an admin
 		}
 
-		// Retrieve the playlist id as a String and then convert it to Long
-		String playlistIdString = (String) session.getAttribute("playlistid");
+		// The course the video is added to, from the form's hidden field
+		long courseId = playlist.getCourseid();
 
-		if (playlistIdString == null) {
-			// Handle case where playlistId is not found in session
-			return "redirect:/error"; // Redirect to error page if no playlist ID exists
-		}
-
-		Long playlistId = null;
-		try {
-			playlistId = Long.parseLong(playlistIdString); // Convert String to Long
-		} catch (NumberFormatException e) {
-			// Handle the case where the string cannot be parsed into a Long
-			return "redirect:/error"; // Redirect to error page or handle gracefully
+		if (courseId <= 0) {
+			// Handle case where the form did not carry a course ID
+			return "redirect:/error"; // Redirect to error page if no course ID exists
 		}
 
 		// Create a new Playlist object
 		Playlist play = new Playlist();
 
 		// Set the courseId, title, and coverImage for the Playlist object
-		play.setCourseid(playlistId);
+		play.setCourseid(courseId);
 		play.setCoverImage(playlist.getCoverImage());
 		play.setTitle(playlist.getTitle());
 		play.setVideoUrl(playlist.getVideoUrl());
@@ -387,7 +477,7 @@ public class UserController {
 		playlistRepository.save(play);
 
 		// Redirect to the playlist page with the specific id
-		return "redirect:/viewplaylist/" + playlistId; // Corrected the redirect to include the playlist id
+		return "redirect:/viewplaylist/" + courseId;
 	}
 
 	@GetMapping("/addjob")
@@ -407,9 +497,7 @@ public class UserController {
 	        
 	        return "viewjobs";
 	    } catch (Exception e) {
-	        // Log the error for debugging
-	        System.err.println("Error occurred while adding job: " + e.getMessage());
-	        e.printStackTrace();
+	        log.error("Error occurred while adding job", e);
 	        
 	        // Add an error message to the model
 	        List<JobPosting> jobs = jobPostingRepository.findAll();
@@ -438,11 +526,20 @@ public class UserController {
 	
 	// Playlist Management Routes
 	@GetMapping("/playlistmanagement")
-	public String playlistManagement(Model model) {
-		List<Playlist> allPlaylists = playlistRepository.findAll();
-		List<Courses> allCourses = coursesRepository.findAll();
-		model.addAttribute("playlists", allPlaylists);
-		model.addAttribute("courses", allCourses);
+	public String playlistManagement(@RequestParam(defaultValue = "0") Long after,
+									 @RequestParam(defaultValue = "50") int limit,
+									 Model model) {
+		// One page of playlists at a time, and only the course titles for labels and the picker
+		Pageable page = CursorPageDTO.pageRequest(limit);
+		CursorPageDTO<Playlist> playlists = CursorPageDTO.of(
+				playlistRepository.findByIdGreaterThanOrderByIdAsc(after, page), page, Playlist::getId);
+		Map<Long, String> courseTitles = new LinkedHashMap<>();
+		for (CoursesRepository.CourseTitle course : coursesRepository.findAllProjectedByOrderByIdAsc()) {
+			courseTitles.put(course.getId(), course.getCourseTitle());
+		}
+		model.addAttribute("playlists", playlists.getItems());
+		model.addAttribute("nextCursor", playlists.getNextCursor());
+		model.addAttribute("courseTitles", courseTitles);
 		return "playlistManagement";
 	}
 	
@@ -1,16 +1,22 @@
 package com.example.cgs.controller;
 
 
+import com.example.cgs.DTO.CursorPageDTO;
 import com.example.cgs.entities.UserProfile;
 import com.example.cgs.repositories.UserProfileRepository;
+import com.example.cgs.service.NdjsonStreamer;
+import com.example.cgs.service.RecommendationService;
+import com.example.cgs.service.UserIdentityService;
 import com.example.cgs.service.UserProfileService;
 
 import jakarta.servlet.http.HttpSession;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -24,6 +30,15 @@ public class UserProfileController {
     @Autowired
     private UserProfileRepository userProfileRepository;
 
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
     // Save User Profile
     @PostMapping
     public ResponseEntity<UserProfile> saveOrUpdateUserProfile(@RequestBody UserProfile userProfile, HttpSession session) {
@@ -32,7 +47,7 @@ public class UserProfileController {
         userProfile.setEmail(email);
 
         // Check if the user profile exists based on email
-        UserProfile existingProfile = userProfileRepository.findByEmail(email);
+        UserProfile existingProfile = userProfileService.getUserProfileByEmail(email);
 
         if (existingProfile != null) {
             // Update existing profile
@@ -46,10 +61,13 @@ public class UserProfileController {
             }
 
             UserProfile updatedProfile = userProfileRepository.save(existingProfile);
+            recommendationService.profileChanged(email);
             return ResponseEntity.ok(updatedProfile);
         } else {
             // Create new profile
             UserProfile newProfile = userProfileRepository.save(userProfile);
+            userIdentityService.evict(email);
+            recommendationService.profileChanged(email);
             return ResponseEntity.ok(newProfile);
         }
     }
@@ -61,6 +79,21 @@ public class UserProfileController {
         return ResponseEntity.ok(profiles);
     }
 
+    // Get one page of User Profiles in ID order, starting after the given cursor
+    @GetMapping(params = {"limit", "format!=ndjson"})
+    public ResponseEntity<CursorPageDTO<UserProfile>> getUserProfilesPage(@RequestParam int limit,
+                                                                         @RequestParam(defaultValue = "0") Long after) {
+        Pageable page = CursorPageDTO.pageRequest(limit);
+        List<UserProfile> profiles = userProfileRepository.findByIdGreaterThanOrderByIdAsc(after, page);
+        return ResponseEntity.ok(CursorPageDTO.of(profiles, page, UserProfile::getId));
+    }
+
+    // Stream all User Profiles as newline-delimited JSON
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllUserProfiles() {
+        return ndjsonStreamer.stream(userProfileRepository::streamAllByOrderByIdAsc);
+    }
+
     @GetMapping("/skills")
     public ResponseEntity<List<String>> getUserSkills(HttpSession session) {
         String email = (String) session.getAttribute("userEmail");
@@ -114,6 +147,7 @@ public class UserProfileController {
         // Update career goal
         userProfile.setCareerGoal(careerGoalUpdate.getCareerGoal());
         userProfileRepository.save(userProfile);
+        recommendationService.profileChanged(email);
 
         return ResponseEntity.ok("Career goal updated successfully");
     }
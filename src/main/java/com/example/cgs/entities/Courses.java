@@ -1,9 +1,15 @@
 package com.example.cgs.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
 public class Courses {
 
     @Id
@@ -21,6 +27,8 @@ public class Courses {
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "course_id") // Foreign key in Skill table
+    @BatchSize(size = 100) // Load skills for up to 100 courses per query instead of one query per course
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-skills")
     private List<Skill> skills; // List of skills required for the course
 
     // Getters and Setters
@@ -1,11 +1,27 @@
 package com.example.cgs.entities;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "job-posting")
 public class JobPosting {
 	
 	@Id
@@ -19,6 +35,15 @@ public class JobPosting {
     private String requiredSkills;
     private String salaryRange;
     private String applyLink;
+
+    // Normalized tokens of requiredSkills, one row each, kept in sync by setRequiredSkills
+    @ElementCollection
+    @CollectionTable(name = "job_posting_skill",
+            joinColumns = @JoinColumn(name = "job_posting_id"),
+            indexes = @Index(name = "idx_job_posting_skill_skill", columnList = "skill, job_posting_id"))
+    @Column(name = "skill", nullable = false)
+    @JsonIgnore
+    private Set<String> skillTokens = new HashSet<>();
 	public Long getId() {
 		return id;
 	}
@@ -54,6 +79,31 @@ public class JobPosting {
 	}
 	public void setRequiredSkills(String requiredSkills) {
 		this.requiredSkills = requiredSkills;
+		this.skillTokens.clear();
+		this.skillTokens.addAll(tokenizeSkills(requiredSkills));
+	}
+	public Set<String> getSkillTokens() {
+		return skillTokens;
+	}
+
+	/**
+	 * Splits a comma-separated skill list into normalized, non-empty tokens.
+	 *
+	 * @param requiredSkills The comma-separated skills, may be null.
+	 * @return The distinct normalized skills.
+	 */
+	public static Set<String> tokenizeSkills(String requiredSkills) {
+		Set<String> tokens = new HashSet<>();
+		if (requiredSkills == null) {
+			return tokens;
+		}
+		for (String skill : requiredSkills.split(",")) {
+			String token = Skill.normalize(skill);
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
 	}
 	public String getSalaryRange() {
 		return salaryRange;
@@ -0,0 +1,66 @@
+package com.example.cgs.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+import java.time.Instant;
+
+/**
+ * One run of the batch recommendation report. Its rows in user_recommendation are complete
+ * once {@code finishedAt} is set.
+ */
+@Entity
+public class RecommendationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Instant startedAt;
+    private Instant finishedAt; // Null while the run is in progress or if it failed
+    private int users; // Profiles scored
+    private double usersPerSecond;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public double getUsersPerSecond() {
+        return usersPerSecond;
+    }
+
+    public void setUsersPerSecond(double usersPerSecond) {
+        this.usersPerSecond = usersPerSecond;
+    }
+}
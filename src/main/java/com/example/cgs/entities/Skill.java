@@ -1,8 +1,14 @@
 package com.example.cgs.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Locale;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "skill")
 public class Skill {
 
     @Id
@@ -21,4 +27,14 @@ public class Skill {
 
     public String getLevel() { return level; }
     public void setLevel(String level) { this.level = level; }
+
+    /**
+     * Normalizes a skill name so that comparisons are case and padding insensitive.
+     *
+     * @param skill The raw skill name.
+     * @return The normalized skill name, or null if the input is null.
+     */
+    public static String normalize(String skill) {
+        return skill == null ? null : skill.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -1,9 +1,16 @@
 package com.example.cgs.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_user_profile_email", columnNames = "email")) // One profile per user
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-profile")
 public class UserProfile {
 
     @Id
@@ -16,6 +23,8 @@ public class UserProfile {
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "user_profile_id") // Foreign key in Skill table
+    @BatchSize(size = 100) // Load skills for up to 100 profiles per query instead of one query per profile
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-profile-skills")
     private List<Skill> skills; // List of user's skills
 
     // Getters and Setters
@@ -0,0 +1,76 @@
+package com.example.cgs.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A course recommended to a user by a {@link RecommendationRun}. Rows are bulk-inserted with
+ * JDBC by the report job and only read through JPA.
+ */
+@Entity
+@Table(name = "user_recommendation",
+        indexes = @Index(name = "idx_user_recommendation_run_user", columnList = "run_id, user_email, course_rank"))
+public class UserRecommendation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(name = "course_rank", nullable = false)
+    private int courseRank; // 1 for the best match
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public int getCourseRank() {
+        return courseRank;
+    }
+
+    public void setCourseRank(int courseRank) {
+        this.courseRank = courseRank;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+}
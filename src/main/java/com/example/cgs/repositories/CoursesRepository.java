@@ -1,9 +1,40 @@
 package com.example.cgs.repositories;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.example.cgs.entities.Courses;
 
+import jakarta.persistence.QueryHint;
+
 public interface CoursesRepository extends JpaRepository<Courses,Long> {
 
+	// Only what a course picker needs, without the description and skills
+	interface CourseTitle {
+		Long getId();
+		String getCourseTitle();
+	}
+
+	// Courses and their skills in a single join query
+	@Override
+	@EntityGraph(attributePaths = "skills")
+	List<Courses> findAll();
+
+	// Paged queries can't join-fetch a collection without paging in memory; skills are batch-loaded instead
+	List<Courses> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	Stream<Courses> streamAllByOrderByIdAsc();
+
+	List<CourseTitle> findAllProjectedByOrderByIdAsc();
+
 }
@@ -1,7 +1,35 @@
 package com.example.cgs.repositories;
 
 import com.example.cgs.entities.JobPosting;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface JobPostingRepository extends JpaRepository<JobPosting, Long> {
+
+    List<JobPosting> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<JobPosting> streamAllByOrderByIdAsc();
+
+    // Postings requiring at least one of the given normalized skills, most shared skills first
+    @Query("select j from JobPosting j join j.skillTokens s where s in :skills "
+            + "group by j order by count(s) desc, j.id asc")
+    List<JobPosting> findMatchingSkillsRankedByOverlap(@Param("skills") Collection<String> skills);
+
+    // Postings whose skill tokens have not been written yet, in ID order after the given ID
+    @Query("select j from JobPosting j where j.id > :afterId and j.requiredSkills is not null "
+            + "and j.skillTokens is empty order by j.id asc")
+    List<JobPosting> findMissingSkillTokens(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -1,7 +1,22 @@
 package com.example.cgs.repositories;
 
 import com.example.cgs.entities.Message;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
-}
\ No newline at end of file
+
+    List<Message> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Message> streamAllByOrderByIdAsc();
+}
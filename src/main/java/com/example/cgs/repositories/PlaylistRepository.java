@@ -2,12 +2,21 @@ package com.example.cgs.repositories;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.example.cgs.entities.Playlist;
 
+import jakarta.persistence.QueryHint;
+
 public interface PlaylistRepository extends JpaRepository<Playlist,Long> {
 
+	// Served from the query cache until a playlist is written
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	List<Playlist> findAllByCourseid(Long id);
 
+	List<Playlist> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
 }
@@ -2,9 +2,14 @@ package com.example.cgs.repositories;
 
 import com.example.cgs.entities.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
     Optional<Profile> findByEmail(String email);
+
+    @Query("select p.id from Profile p where p.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
 }
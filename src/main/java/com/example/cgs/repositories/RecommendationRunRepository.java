@@ -0,0 +1,12 @@
+package com.example.cgs.repositories;
+
+import com.example.cgs.entities.RecommendationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface RecommendationRunRepository extends JpaRepository<RecommendationRun, Long> {
+
+    // The latest run whose results are complete
+    Optional<RecommendationRun> findFirstByFinishedAtIsNotNullOrderByIdDesc();
+}
@@ -1,9 +1,38 @@
 package com.example.cgs.repositories;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.cgs.entities.UserProfile;
 
+import jakarta.persistence.QueryHint;
+
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
+    // Every caller reads the profile's skills, so fetch them in the same query
+    @EntityGraph(attributePaths = "skills")
     UserProfile findByEmail(String email);
+
+    @Query("select p.id from UserProfile p where p.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Override
+    @EntityGraph(attributePaths = "skills")
+    List<UserProfile> findAll();
+
+    List<UserProfile> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserProfile> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,12 @@
+package com.example.cgs.repositories;
+
+import com.example.cgs.entities.UserRecommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface UserRecommendationRepository extends JpaRepository<UserRecommendation, Long> {
+
+    // One user's report rows, best match first; served by idx_user_recommendation_run_user
+    List<UserRecommendation> findByRunIdAndUserEmailOrderByCourseRankAsc(Long runId, String userEmail);
+}
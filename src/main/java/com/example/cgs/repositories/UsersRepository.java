@@ -1,6 +1,12 @@
 package com.example.cgs.repositories;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.cgs.entities.Users;
 
@@ -9,5 +15,14 @@ public interface UsersRepository extends JpaRepository<Users,Long> {
 	boolean existsByEmail(String email);
 
 	Users findByEmail(String email);
-	
+
+	@Query("select u.id from Users u where u.email = :email")
+	Optional<Long> findIdByEmail(@Param("email") String email);
+
+	// Only replaces the password if it is still the expected value, so a concurrent change wins
+	@Modifying
+	@Transactional
+	@Query("update Users u set u.password = :password where u.id = :id and u.password = :previous")
+	int updatePassword(@Param("id") long id, @Param("previous") String previous, @Param("password") String password);
+
 }
@@ -0,0 +1,105 @@
+package com.example.cgs.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over a fixed list of patterns.
+ *
+ * Finds, in one pass over a text, the lowest-numbered pattern that occurs anywhere in it. The
+ * cost of a search depends on the length of the text, not on the number of patterns.
+ */
+public final class AhoCorasick {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final List<Map<Character, Integer>> children = new ArrayList<>();
+    private final List<Integer> fail = new ArrayList<>();
+
+    // Lowest pattern number ending at this node or at any node on its fail chain
+    private final List<Integer> firstMatch = new ArrayList<>();
+
+    /**
+     * Builds the automaton. A pattern's number is its position in the list; empty and null
+     * patterns never match.
+     *
+     * @param patterns The patterns to search for.
+     */
+    public AhoCorasick(List<String> patterns) {
+        newNode();
+        for (int number = 0; number < patterns.size(); number++) {
+            String pattern = patterns.get(number);
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = newNode();
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            firstMatch.set(node, Math.min(firstMatch.get(node), number));
+        }
+        buildFailLinks();
+    }
+
+    /**
+     * @param text The text to scan.
+     * @return The lowest number of a pattern occurring in the text, or -1 if none does.
+     */
+    public int firstPatternIn(String text) {
+        int best = NONE;
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            node = step(node, text.charAt(i));
+            best = Math.min(best, firstMatch.get(node));
+        }
+        return best == NONE ? -1 : best;
+    }
+
+    private int step(int node, char c) {
+        while (true) {
+            Integer next = children.get(node).get(c);
+            if (next != null) {
+                return next;
+            }
+            if (node == 0) {
+                return 0;
+            }
+            node = fail.get(node);
+        }
+    }
+
+    private void buildFailLinks() {
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : children.get(0).values()) {
+            fail.set(child, 0);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : children.get(node).entrySet()) {
+                int child = edge.getValue();
+                int target = step(fail.get(node), edge.getKey());
+                fail.set(child, target);
+                firstMatch.set(child, Math.min(firstMatch.get(child), firstMatch.get(target)));
+                queue.add(child);
+            }
+        }
+    }
+
+    private int newNode() {
+        children.add(new HashMap<>());
+        fail.add(0);
+        firstMatch.add(NONE);
+        return children.size() - 1;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Profile;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Metadata of each user's profile picture, so serving it needs neither a database lookup nor
+ * reading the file before the response is written.
+ *
+ * Entries are computed on first request and dropped when the user uploads a new picture. For
+ * pictures in the {@link ImageStore}, the avatar is the {@value #AVATAR_SIZE} pixel thumbnail.
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvatarService.class);
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    // Thumbnail served as the avatar; pages show it at up to 10rem
+    private static final int AVATAR_SIZE = 256;
+
+    // Email -> the user's picture, or empty if the user has none
+    private final Cache<String, Optional<Avatar>> avatars = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    /**
+     * A profile picture on disk, with what is needed to answer conditional requests.
+     */
+    public static final class Avatar {
+        private final Path path;
+        private final MediaType contentType;
+        private final String hash;
+        private final long lastModified;
+
+        Avatar(Path path, MediaType contentType, String hash, long lastModified) {
+            this.path = path;
+            this.contentType = contentType;
+            this.hash = hash;
+            this.lastModified = lastModified;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public MediaType getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @return Hex SHA-256 of the file content.
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        public String getEtag() {
+            return "\"" + hash + "\"";
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * @param email The user's email.
+     * @return The user's profile picture, or empty if the user has none or the file is missing.
+     */
+    public Optional<Avatar> findByEmail(String email) {
+        Optional<Avatar> avatar = avatars.get(email, this::load);
+        // The original only stands in while its thumbnail is being made; look again next time
+        avatar.flatMap(found -> imageStore.hashOf(found.getPath()))
+                .filter(imageStore::thumbnailsReadyOrPending)
+                .ifPresent(hash -> avatars.asMap().remove(email, avatar));
+        return avatar;
+    }
+
+    /**
+     * Drops the cached picture of a user. Called after the user uploads a new one.
+     *
+     * @param email The user's email.
+     */
+    public void evict(String email) {
+        avatars.invalidate(email);
+    }
+
+    private Optional<Avatar> load(String email) {
+        Profile profile = profileService.getProfileByEmail(email);
+        if (profile == null || profile.getProfilePic() == null) {
+            return Optional.empty();
+        }
+
+        Path path = Paths.get(profile.getProfilePic());
+        try {
+            if (!Files.isRegularFile(path)) {
+                log.warn("Profile picture of {} is missing: {}", email, path);
+                return Optional.empty();
+            }
+            // Serve the small variant of stored uploads; pictures saved before the store are served as is
+            Optional<String> hash = imageStore.hashOf(path);
+            if (hash.isPresent()) {
+                path = imageStore.thumbnail(hash.get(), path, AVATAR_SIZE).orElse(path);
+            }
+            return Optional.of(avatarOf(path));
+        } catch (IOException e) {
+            log.warn("Error reading profile picture of {}: {}", email, path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the metadata of an image file: its type, content hash and modification time.
+     *
+     * @param path The image file.
+     * @return The avatar describing the file.
+     */
+    public static Avatar avatarOf(Path path) throws IOException {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        return new Avatar(path, sniffContentType(path), sha256Hex(path), lastModified);
+    }
+
+    /**
+     * Detects the image type from the file's leading bytes, falling back to its extension.
+     *
+     * @param path The image file.
+     * @return The detected type, or application/octet-stream if it is not a known image. SVG is
+     *         never reported as an image, since it can carry script.
+     */
+    static MediaType sniffContentType(Path path) throws IOException {
+        byte[] header = new byte[12];
+        int length;
+        try (InputStream in = Files.newInputStream(path)) {
+            length = in.readNBytes(header, 0, header.length);
+        }
+        header = Arrays.copyOf(header, length);
+
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return MediaType.IMAGE_PNG;
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return MediaType.IMAGE_GIF;
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return MediaType.parseMediaType("image/webp");
+        }
+        return MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .filter(type -> type.getType().equals("image") && !type.getSubtype().startsWith("svg"))
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int... expected) {
+        if (bytes.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((bytes[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String sha256Hex(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        // Stream the file through the digest instead of loading it
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.cgs.service;
+
+import com.example.cgs.service.JobSkillsCatalog.JobMapping;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves a free-text career goal to a job of the {@link JobSkillsCatalog}.
+ *
+ * Matching rules, in order, with the earliest job in the file winning within each rule:
+ * <ol>
+ *     <li>the normalized title equals the normalized goal, or the two are equal once spaces are removed;</li>
+ *     <li>the title contains the goal, or the goal contains the title.</li>
+ * </ol>
+ * Lookup structures are compiled once per catalog snapshot: hash maps for the exact rule, an
+ * n-gram {@link SubstringIndex} for "title contains goal" and an {@link AhoCorasick} automaton
+ * for "goal contains title". Resolved goals are cached per snapshot.
+ */
+@Component
+public class CareerGoalResolver {
+
+    private static final int MAX_CACHED_GOALS = 10_000;
+
+    @Autowired
+    private JobSkillsCatalog jobSkillsCatalog;
+
+    private volatile Compiled compiled;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * Lookup structures for one catalog snapshot.
+     */
+    private static final class Compiled {
+        private final JobSkillsCatalog.Snapshot source;
+        private final List<JobMapping> jobs;
+        private final Map<String, Integer> byNormalizedTitle = new HashMap<>();
+        private final Map<String, Integer> byStrippedTitle = new HashMap<>();
+        private final SubstringIndex titles = new SubstringIndex();
+        private final AhoCorasick titleMatcher;
+        private final Map<String, Optional<JobMapping>> resolved = new ConcurrentHashMap<>();
+
+        Compiled(JobSkillsCatalog.Snapshot source) {
+            this.source = source;
+            this.jobs = source.getJobs();
+            List<String> normalizedTitles = new ArrayList<>(jobs.size());
+            for (int i = 0; i < jobs.size(); i++) {
+                String title = JobSkillsCatalog.normalizeTitle(jobs.get(i).getJobTitle());
+                normalizedTitles.add(title);
+                byNormalizedTitle.putIfAbsent(title, i);
+                byStrippedTitle.putIfAbsent(stripSpaces(title), i);
+                titles.add(title);
+            }
+            this.titleMatcher = new AhoCorasick(normalizedTitles);
+        }
+
+        Optional<JobMapping> resolve(String goal) {
+            int exact = Math.min(
+                    byNormalizedTitle.getOrDefault(goal, Integer.MAX_VALUE),
+                    byStrippedTitle.getOrDefault(stripSpaces(goal), Integer.MAX_VALUE));
+            if (exact != Integer.MAX_VALUE) {
+                return Optional.of(jobs.get(exact));
+            }
+
+            // Titles containing the goal
+            int partial = Integer.MAX_VALUE;
+            for (String title : titles.keysContaining(goal)) {
+                partial = Math.min(partial, byNormalizedTitle.get(title));
+            }
+
+            // Titles contained in the goal
+            int contained = titleMatcher.firstPatternIn(goal);
+            if (contained >= 0) {
+                partial = Math.min(partial, contained);
+            }
+            return partial == Integer.MAX_VALUE ? Optional.empty() : Optional.of(jobs.get(partial));
+        }
+    }
+
+    /**
+     * Finds the job matching a career goal.
+     *
+     * @param careerGoal The user's career goal as entered.
+     * @return The matching job, or empty if the goal is blank or matches nothing.
+     */
+    public Optional<JobMapping> resolve(String careerGoal) {
+        String goal = JobSkillsCatalog.normalizeTitle(careerGoal);
+        if (goal.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Compiled current = current();
+        Optional<JobMapping> cached = current.resolved.get(goal);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+
+        cacheMisses.incrementAndGet();
+        Optional<JobMapping> result = current.resolve(goal);
+        if (current.resolved.size() >= MAX_CACHED_GOALS) {
+            current.resolved.clear();
+        }
+        current.resolved.put(goal, result);
+        return result;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    private Compiled current() {
+        JobSkillsCatalog.Snapshot snapshot = jobSkillsCatalog.snapshot();
+        Compiled current = compiled;
+        if (current == null || current.source != snapshot) {
+            synchronized (this) {
+                current = compiled;
+                if (current == null || current.source != snapshot) {
+                    current = new Compiled(snapshot);
+                    compiled = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static String stripSpaces(String text) {
+        return text.indexOf(' ') < 0 ? text : text.replace(" ", "");
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.JobPosting;
+import com.example.cgs.entities.Playlist;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Set;
+
+/**
+ * Bumps the {@link CatalogVersion} whenever Hibernate flushes a course, job posting or playlist
+ * change, including changes that only touch an element collection such as a course's skills,
+ * which JPA lifecycle callbacks do not report.
+ */
+public class CatalogChangeListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private static final Set<Class<?>> CATALOG = Set.of(Courses.class, JobPosting.class, Playlist.class);
+
+    private final CatalogVersion catalogVersion;
+
+    public CatalogChangeListener(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        changed(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        changed(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        changed(event.getAffectedOwnerOrNull());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void changed(Object entity) {
+        if (entity != null && CATALOG.contains(entity.getClass())) {
+            catalogVersion.changed();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.cgs.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Catalog JSON responses, serialized once per {@link CatalogVersion} and kept both raw and
+ * gzip-compressed, so repeated reads only copy bytes.
+ *
+ * The ETag is the catalog version, which is known without loading anything: a request whose
+ * {@code If-None-Match} names the current version is answered 304 without touching the
+ * database or the cache.
+ */
+@Component
+public class CatalogJsonCache {
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // One catalog version's serialized response
+    private record Body(long version, String etag, byte[] json, byte[] gzip) {
+    }
+
+    // Response key, e.g. "courses" or "playlist/12" -> latest serialized body
+    private final Cache<String, Body> bodies = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+
+    /**
+     * Answers a catalog read from the cached body of the current catalog version, building it
+     * first if the catalog changed since it was cached.
+     *
+     * @param key Identifies the response, e.g. {@code "playlist/" + courseId}.
+     * @param loader Loads the value to serialize; only called on a cache miss.
+     * @param request The current request, used for conditional requests and Accept-Encoding.
+     * @return The JSON body, gzip-encoded if the client accepts it, or 304.
+     */
+    public ResponseEntity<byte[]> respond(String key, Supplier<?> loader, WebRequest request) {
+        // Read before loading, so a write that lands meanwhile leaves the body built below stale
+        long version = catalogVersion.current();
+        if (request.checkNotModified(catalogVersion.etag(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(catalogVersion.etag(version))
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        // Concurrent misses for a key wait for one build instead of each loading the catalog
+        Body body = bodies.asMap().compute(key, (k, cached) ->
+                cached != null && cached.version() >= version ? cached : build(version, loader));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(body.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+
+    private Body build(long version, Supplier<?> loader) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(loader.get());
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(json);
+            }
+            return new Body(version, catalogVersion.etag(version), json, buffer.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // gzip;q=0 means the client refuses it
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.cgs.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter bumped on every course, job posting or playlist write, so anything derived from the
+ * catalog can tell whether it is still current by comparing one number.
+ *
+ * A write bumps the version when it is flushed and again after its transaction commits. The
+ * second bump retires anything built from the old rows by a reader that saw the first one
+ * before the commit made the change visible.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    // Versions start over on restart; the start time keeps ETags from before it from matching
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * @param version A catalog version.
+     * @return A strong ETag for a response built from that version.
+     */
+    public String etag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * Records a catalog write. Called by {@link CatalogChangeListener}.
+     */
+    public void changed() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.Skill;
+import com.example.cgs.repositories.CoursesRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory inverted index from normalized skill name to the IDs of the courses teaching it.
+ *
+ * The index is built once at startup and kept in sync by the controllers that write courses,
+ * so neither recommendation nor search loads the course table. Each course also carries a
+ * bitset of its skills over a shared {@link SkillDictionary}, so recommendation scores a course
+ * with a few popcounts instead of set lookups.
+ */
+@Component
+public class CourseSkillIndex {
+
+    @Autowired
+    private CoursesRepository coursesRepository;
+
+    // Normalized skill -> IDs of the courses that teach it
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    // Course ID -> course with its precomputed normalized skills
+    private final Map<Long, IndexedCourse> courses = new ConcurrentHashMap<>();
+
+    // Bumped on every change, so results derived from the index can tell they are stale
+    private final AtomicLong version = new AtomicLong();
+
+    // N-grams of the distinct normalized skills, for the skill search box
+    private final SubstringIndex skillNames = new SubstringIndex();
+
+    // Normalized skill -> bit position in the courses' skill bitsets
+    private final SkillDictionary dictionary = new SkillDictionary();
+
+    // Courses sorted by ID with their bitsets by word, for ranking; null after a write until the next ranking
+    private volatile Snapshot snapshot;
+
+    private final ScoringEngine scoringEngine;
+
+    // Longest query whose substrings are looked up as whole skills
+    private static final int MAX_QUERY_LENGTH = 64;
+
+    // How well a skill matches a search query, best first
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int SUBSTRING = 1;
+    private static final int QUERY_CONTAINS_SKILL = 0;
+
+    /**
+     * A course together with the metadata precomputed for scoring.
+     */
+    public static final class IndexedCourse {
+        private final Courses course;
+        private final Set<String> normalizedSkills;
+        private final long[] skillBits;
+
+        IndexedCourse(Courses course, Set<String> normalizedSkills, long[] skillBits) {
+            this.course = course;
+            this.normalizedSkills = normalizedSkills;
+            this.skillBits = skillBits;
+        }
+
+        public Courses getCourse() {
+            return course;
+        }
+
+        public Set<String> getNormalizedSkills() {
+            return normalizedSkills;
+        }
+    }
+
+    private record Snapshot(IndexedCourse[] courses, SkillMatrix matrix) {
+    }
+
+    public CourseSkillIndex() {
+        this(new ScoringEngine());
+    }
+
+    /**
+     * @param meterRegistry Where the scoring engine's meters are registered.
+     */
+    @Autowired
+    public CourseSkillIndex(MeterRegistry meterRegistry) {
+        this(new ScoringEngine(meterRegistry));
+    }
+
+    /**
+     * @param scoringEngine Ranks the courses; its pool is shut down with the index.
+     */
+    public CourseSkillIndex(ScoringEngine scoringEngine) {
+        this.scoringEngine = scoringEngine;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scoringEngine.shutdown();
+    }
+
+    /**
+     * Loads every course from the database into the index once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            for (Long id : new ArrayList<>(courses.keySet())) {
+                remove(id);
+            }
+            coursesRepository.findAll().forEach(this::put);
+        }
+    }
+
+    /**
+     * Adds or replaces a course in the index. Called after a course has been saved.
+     *
+     * @param course The saved course, with its ID assigned.
+     */
+    public synchronized void put(Courses course) {
+        if (course == null || course.getId() == null) {
+            return;
+        }
+        remove(course.getId());
+        version.incrementAndGet();
+        snapshot = null;
+
+        Set<String> normalizedSkills = new HashSet<>();
+        if (course.getSkills() != null) {
+            for (Skill skill : course.getSkills()) {
+                String name = Skill.normalize(skill.getSkill());
+                if (name != null && !name.isEmpty()) {
+                    normalizedSkills.add(name);
+                }
+            }
+        }
+
+        long[] skillBits = dictionary.internAll(normalizedSkills);
+        courses.put(course.getId(), new IndexedCourse(course, Collections.unmodifiableSet(normalizedSkills), skillBits));
+        for (String skill : normalizedSkills) {
+            postings.computeIfAbsent(skill, key -> ConcurrentHashMap.newKeySet()).add(course.getId());
+            skillNames.add(skill);
+        }
+    }
+
+    /**
+     * Removes a course from the index. Called after a course has been deleted.
+     *
+     * @param courseId The ID of the deleted course.
+     */
+    public synchronized void remove(Long courseId) {
+        IndexedCourse previous = courses.remove(courseId);
+        if (previous == null) {
+            return;
+        }
+        version.incrementAndGet();
+        snapshot = null;
+        for (String skill : previous.getNormalizedSkills()) {
+            Set<Long> ids = postings.get(skill);
+            if (ids != null) {
+                ids.remove(courseId);
+                if (ids.isEmpty()) {
+                    postings.remove(skill);
+                    skillNames.remove(skill);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return A number that changes whenever a course is added, updated or removed.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * @param courseId A course ID.
+     * @return The indexed course, or {@code null} if it is not in the index.
+     */
+    public Courses get(Long courseId) {
+        IndexedCourse indexed = courses.get(courseId);
+        return indexed == null ? null : indexed.getCourse();
+    }
+
+    public boolean isEmpty() {
+        return courses.isEmpty();
+    }
+
+    public int size() {
+        return courses.size();
+    }
+
+    /**
+     * @return Every normalized skill taught by at least one course.
+     */
+    public Set<String> allSkills() {
+        return Collections.unmodifiableSet(postings.keySet());
+    }
+
+    /**
+     * Finds the skills taught by some course that are not in the given set.
+     *
+     * @param userSkills The user's normalized skills.
+     * @return The normalized skills the user doesn't have.
+     */
+    public Set<String> missingSkills(Set<String> userSkills) {
+        Set<String> missing = new HashSet<>();
+        for (String skill : postings.keySet()) {
+            if (!userSkills.contains(skill)) {
+                missing.add(skill);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Counts the skills taught by some course that are not in the given set, without building
+     * the set {@link #missingSkills} returns.
+     *
+     * @param userSkills The user's normalized skills.
+     * @return How many normalized skills the user doesn't have.
+     */
+    public int missingSkillCount(Set<String> userSkills) {
+        int known = 0;
+        for (String skill : userSkills) {
+            if (postings.containsKey(skill)) {
+                known++;
+            }
+        }
+        return postings.size() - known;
+    }
+
+    /**
+     * The best courses of a ranking and how many courses scored at all.
+     *
+     * @param courses The highest-ranked courses, best first.
+     * @param total How many courses matched, including those beyond the limit.
+     */
+    public record TopCourses(List<Courses> courses, int total) {
+
+        /**
+         * @return Whether {@link #courses()} holds every matching course.
+         */
+        public boolean isComplete() {
+            return courses.size() == total;
+        }
+    }
+
+    /**
+     * Ranks the courses teaching at least one of the given skills by how many of them they teach.
+     *
+     * @param skills The normalized skills to look for.
+     * @return Matching courses, highest score first and ties broken by course ID.
+     */
+    public List<Courses> recommend(Set<String> skills) {
+        return recommend(skills, Integer.MAX_VALUE).courses();
+    }
+
+    /**
+     * Like {@link #recommend(Set)}, but only the best {@code limit} courses are kept and sorted.
+     *
+     * @param skills The normalized skills to look for.
+     * @param limit How many courses to return at most.
+     * @return The best matching courses and the number of matches.
+     */
+    public TopCourses recommend(Set<String> skills, int limit) {
+        return rank(dictionary.bitsOf(skills), limit);
+    }
+
+    /**
+     * Ranks the courses teaching at least one skill the user doesn't have by how many such
+     * skills they teach. Same result as {@code recommend(missingSkills(userSkills))} without
+     * building the set of missing skills.
+     *
+     * @param userSkills The user's normalized skills.
+     * @return Matching courses, highest score first and ties broken by course ID.
+     */
+    public List<Courses> recommendMissing(Set<String> userSkills) {
+        return recommendMissing(userSkills, Integer.MAX_VALUE).courses();
+    }
+
+    /**
+     * Like {@link #recommendMissing(Set)}, but only the best {@code limit} courses are kept and sorted.
+     *
+     * @param userSkills The user's normalized skills.
+     * @param limit How many courses to return at most.
+     * @return The best matching courses and the number of matches.
+     */
+    public TopCourses recommendMissing(Set<String> userSkills, int limit) {
+        return rank(dictionary.complementOf(dictionary.bitsOf(userSkills)), limit);
+    }
+
+    /**
+     * Scores every course by the popcount of its skill bits and the target's and keeps the best
+     * {@code limit} with a non-zero score. Ties are broken by course ID, since positions in the
+     * snapshot follow IDs.
+     */
+    private TopCourses rank(long[] target, int limit) {
+        Snapshot current = snapshot();
+        ScoringEngine.Ranked ranked = scoringEngine.rank(current.matrix(), target, limit);
+
+        List<Courses> result = new ArrayList<>(ranked.keys().length);
+        for (long key : ranked.keys()) {
+            result.add(current.courses()[ScoringEngine.Ranked.positionOf(key)].getCourse());
+        }
+        return new TopCourses(result, ranked.total());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                IndexedCourse[] all = courses.values().toArray(new IndexedCourse[0]);
+                Arrays.sort(all, Comparator.comparing(indexed -> indexed.getCourse().getId()));
+                long[][] rows = new long[all.length][];
+                for (int i = 0; i < all.length; i++) {
+                    rows[i] = all[i].skillBits;
+                }
+                snapshot = new Snapshot(all, new SkillMatrix(rows));
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Finds the courses with a skill that contains the query, or that the query contains.
+     * Candidate skills come from the n-gram index and from looking up the query's substrings,
+     * so neither the courses nor the distinct skills are scanned. Queries longer than
+     * {@value #MAX_QUERY_LENGTH} characters scan the distinct skills instead of their substrings.
+     *
+     * @param query The search box text.
+     * @return Matching courses, ranked by their best match (exact, prefix, substring, then
+     *         query containing the skill), then by how many of their skills match, then by ID.
+     */
+    public List<Courses> search(String query) {
+        String text = Skill.normalize(query);
+        if (text == null) {
+            return List.of();
+        }
+
+        Map<String, Integer> matchedSkills = new HashMap<>();
+        for (String skill : skillNames.keysContaining(text)) {
+            int quality = skill.equals(text) ? EXACT : skill.startsWith(text) ? PREFIX : SUBSTRING;
+            matchedSkills.put(skill, quality);
+        }
+        if (text.length() <= MAX_QUERY_LENGTH) {
+            for (int start = 0; start < text.length(); start++) {
+                for (int end = start + 1; end <= text.length(); end++) {
+                    String part = text.substring(start, end);
+                    if (skillNames.contains(part)) {
+                        matchedSkills.putIfAbsent(part, QUERY_CONTAINS_SKILL);
+                    }
+                }
+            }
+        } else {
+            // Too many substrings to look up; a long query is rare enough to scan the distinct skills
+            for (String skill : postings.keySet()) {
+                if (text.contains(skill)) {
+                    matchedSkills.putIfAbsent(skill, QUERY_CONTAINS_SKILL);
+                }
+            }
+        }
+
+        // Course ID -> {best match quality, number of matching skills}
+        Map<Long, int[]> scores = new HashMap<>();
+        for (Map.Entry<String, Integer> match : matchedSkills.entrySet()) {
+            Set<Long> ids = postings.get(match.getKey());
+            if (ids == null) {
+                continue;
+            }
+            for (Long id : ids) {
+                int[] score = scores.computeIfAbsent(id, key -> new int[2]);
+                score[0] = Math.max(score[0], match.getValue());
+                score[1]++;
+            }
+        }
+
+        List<Map.Entry<Long, int[]>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Comparator.<Map.Entry<Long, int[]>>comparingInt(entry -> -entry.getValue()[0])
+                .thenComparingInt(entry -> -entry.getValue()[1])
+                .thenComparing(Map.Entry::getKey));
+
+        List<Courses> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, int[]> entry : ranked) {
+            IndexedCourse indexed = courses.get(entry.getKey());
+            if (indexed != null) {
+                result.add(indexed.getCourse());
+            }
+        }
+        return result;
+    }
+}
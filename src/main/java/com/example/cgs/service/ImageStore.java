@@ -0,0 +1,317 @@
+package com.example.cgs.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content-addressed storage for uploaded images.
+ *
+ * Each upload is stored once under the SHA-256 of its bytes, so identical uploads share a file
+ * and different users never overwrite each other. Square thumbnails in {@link #THUMBNAIL_SIZES}
+ * are generated on a small bounded executor after the upload request has returned.
+ *
+ * Layout under the upload directory:
+ * <pre>
+ * originals/ab/abcdef...png
+ * thumbs/256/ab/abcdef...jpg
+ * </pre>
+ */
+@Service
+public class ImageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageStore.class);
+
+    public static final int[] THUMBNAIL_SIZES = {64, 256};
+
+    // Largest image that will be decoded, to keep a small upload from expanding into a huge bitmap
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    private static final Map<MediaType, String> EXTENSIONS = Map.of(
+            MediaType.IMAGE_JPEG, "jpg",
+            MediaType.IMAGE_PNG, "png",
+            MediaType.IMAGE_GIF, "gif",
+            MediaType.parseMediaType("image/webp"), "webp");
+
+    private final Path root;
+
+    // How long a request waits for a queued thumbnail before serving the original instead
+    private static final long THUMBNAIL_WAIT_MILLIS = 200;
+
+    private final ExecutorService executor;
+
+    // Content hash -> the thumbnail job still running or queued for it
+    private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    public ImageStore() {
+        this(Paths.get(System.getProperty("user.dir"), "uploads"));
+    }
+
+    ImageStore(Path root) {
+        // Two workers and a short queue; when full, thumbnails are made on first request
+        this(root, new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable task) {
+                        Thread thread = new Thread(task, "image-store-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }, new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    ImageStore(Path root, ExecutorService executor) {
+        this.root = root;
+        this.executor = executor;
+    }
+
+    /**
+     * An image saved in the store.
+     *
+     * @param hash Hex SHA-256 of the original bytes.
+     * @param path Where the original is stored.
+     * @param thumbnails Completes once every thumbnail exists.
+     */
+    public record StoredImage(String hash, Path path, CompletableFuture<Void> thumbnails) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Saves an uploaded image under its content hash and schedules its thumbnails.
+     *
+     * @param upload The uploaded file.
+     * @return The stored image.
+     * @throws IllegalArgumentException If the upload is not a JPEG, PNG, GIF or WebP image.
+     */
+    public StoredImage store(MultipartFile upload) throws IOException {
+        Path incoming = root.resolve("incoming");
+        Files.createDirectories(incoming);
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(upload.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            String extension = EXTENSIONS.get(AvatarService.sniffContentType(temp));
+            if (extension == null) {
+                throw new IllegalArgumentException("Not a supported image");
+            }
+
+            Path original = originalPath(hash, extension);
+            Files.createDirectories(original.getParent());
+            try {
+                Files.move(temp, original, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content was uploaded before; keep the existing copy
+            }
+            CompletableFuture<Void> thumbnails;
+            try {
+                thumbnails = scheduleThumbnails(hash, original);
+            } catch (RejectedExecutionException e) {
+                log.warn("Thumbnail queue is full, {} will be resized on first request", hash);
+                thumbnails = CompletableFuture.completedFuture(null);
+            }
+            return new StoredImage(hash, original, thumbnails);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Finds the stored original an image path refers to.
+     *
+     * @param path A path previously returned by {@link #store(MultipartFile)}.
+     * @return The content hash, or empty if the path is not in this store.
+     */
+    public Optional<String> hashOf(Path path) {
+        Path originals = root.resolve("originals").toAbsolutePath().normalize();
+        Path absolute = path.toAbsolutePath().normalize();
+        if (!absolute.startsWith(originals)) {
+            return Optional.empty();
+        }
+        String name = absolute.getFileName().toString();
+        int dot = name.indexOf('.');
+        return Optional.of(dot < 0 ? name : name.substring(0, dot));
+    }
+
+    /**
+     * Returns a thumbnail of a stored image. If its background job is still queued or running,
+     * waits briefly for it; the thumbnail is only generated on the calling thread when the job
+     * can't be queued at all.
+     *
+     * @param hash The content hash of the original.
+     * @param original The original image.
+     * @param size One of {@link #THUMBNAIL_SIZES}.
+     * @return The thumbnail, or empty if the original can't be decoded or its thumbnail is not
+     *         ready yet; callers serve the original meanwhile.
+     */
+    public Optional<Path> thumbnail(String hash, Path original, int size) {
+        Path thumbnail = thumbnailPath(hash, size);
+        if (Files.isRegularFile(thumbnail)) {
+            return Optional.of(thumbnail);
+        }
+        try {
+            // Joins the upload's job if it is still pending; otherwise, e.g. after a restart, queues a new one
+            scheduleThumbnails(hash, original).get(THUMBNAIL_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            try {
+                writeThumbnails(hash, original);
+            } catch (IOException | IllegalArgumentException error) {
+                log.warn("Error generating thumbnails of {}", original, error);
+                return Optional.empty();
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            // Still being made, or failed and already logged by the job
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        return Files.isRegularFile(thumbnail) ? Optional.of(thumbnail) : Optional.empty();
+    }
+
+    /**
+     * @param hash The content hash of the original.
+     * @return Whether the image's thumbnails exist or are being made, so serving its original
+     *         is only a stopgap.
+     */
+    public boolean thumbnailsReadyOrPending(String hash) {
+        return pending.containsKey(hash)
+                || Files.isRegularFile(thumbnailPath(hash, THUMBNAIL_SIZES[THUMBNAIL_SIZES.length - 1]));
+    }
+
+    /**
+     * Queues the thumbnails of an image, or returns the job already queued for it.
+     *
+     * @throws RejectedExecutionException If the queue is full.
+     */
+    private CompletableFuture<Void> scheduleThumbnails(String hash, Path original) {
+        CompletableFuture<Void> thumbnails = pending.computeIfAbsent(hash, key -> {
+            CompletableFuture<Void> job = CompletableFuture.runAsync(() -> {
+                try {
+                    writeThumbnails(hash, original);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            job.exceptionally(error -> {
+                log.warn("Error generating thumbnails of {}", original, error);
+                return null;
+            });
+            return job;
+        });
+        // Outside computeIfAbsent, since a job that already finished would run this immediately
+        thumbnails.whenComplete((ignored, error) -> pending.remove(hash, thumbnails));
+        return thumbnails;
+    }
+
+    private void writeThumbnails(String hash, Path original) throws IOException {
+        BufferedImage image = decode(original);
+        for (int size : THUMBNAIL_SIZES) {
+            Path thumbnail = thumbnailPath(hash, size);
+            if (Files.isRegularFile(thumbnail)) {
+                continue;
+            }
+            Files.createDirectories(thumbnail.getParent());
+            Path temp = Files.createTempFile(thumbnail.getParent(), hash, ".tmp");
+            try {
+                ImageIO.write(squareThumbnail(image, size), "jpg", temp.toFile());
+                Files.move(temp, thumbnail, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static BufferedImage decode(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("No decoder for " + original);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                // Check the declared size before allocating the bitmap
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new IllegalArgumentException("Image too large: " + original);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Center-crops the image to a square and scales it down to the given size. Images smaller
+     * than the size are not enlarged.
+     */
+    static BufferedImage squareThumbnail(BufferedImage image, int size) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        int x = (image.getWidth() - side) / 2;
+        int y = (image.getHeight() - side) / 2;
+        int target = Math.min(size, side);
+
+        // JPEG has no alpha, so draw onto an opaque white RGB canvas
+        BufferedImage thumbnail = new BufferedImage(target, target, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, target, target);
+            graphics.drawImage(image, 0, 0, target, target, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private Path originalPath(String hash, String extension) {
+        return root.resolve("originals").resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    private Path thumbnailPath(String hash, int size) {
+        return root.resolve("thumbs").resolve(Integer.toString(size)).resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
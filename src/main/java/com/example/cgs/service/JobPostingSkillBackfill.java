@@ -0,0 +1,60 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.JobPosting;
+import com.example.cgs.repositories.JobPostingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-time migration that fills the job_posting_skill table for postings saved before it existed.
+ *
+ * Runs at startup and only touches postings that have required skills but no skill rows, so once
+ * every existing row has been backfilled it finds nothing to do. Rows are processed in ID order,
+ * one transaction per chunk.
+ */
+@Component
+public class JobPostingSkillBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(JobPostingSkillBackfill.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private JobPostingRepository jobPostingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long afterId = 0;
+        int updated = 0;
+        while (true) {
+            long lastId = afterId;
+            List<JobPosting> chunk = transaction.execute(status -> {
+                List<JobPosting> postings = jobPostingRepository.findMissingSkillTokens(lastId, PageRequest.of(0, CHUNK_SIZE));
+                // Re-deriving the tokens from the stored string writes the skill rows on commit
+                postings.forEach(posting -> posting.setRequiredSkills(posting.getRequiredSkills()));
+                return postings;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            updated += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        if (updated > 0) {
+            log.info("Backfilled skill tokens for {} job postings", updated);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.cgs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parsed, immutable view of job-skills-mapping.json.
+ *
+ * The file is read once at startup. When {@code cgs.job-skills.override-path} points to a file,
+ * that file is used instead and watched for changes; each successful reload atomically swaps in
+ * a new {@link Snapshot}, so readers always see a complete catalog.
+ */
+@Component
+public class JobSkillsCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSkillsCatalog.class);
+
+    private static final String CLASSPATH_LOCATION = "classpath:static/data/job-skills-mapping.json";
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cgs.job-skills.override-path:}")
+    private String overridePath;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    private WatchService watchService;
+
+    private Thread watcherThread;
+
+    // Shape of the JSON file
+    private static class JobSkillsMappingFile {
+        public List<JobMappingEntry> jobSkillsMapping;
+    }
+
+    private static class JobMappingEntry {
+        public String jobTitle;
+        public List<String> requiredSkills;
+    }
+
+    /**
+     * A job title and the skills it requires.
+     */
+    public static final class JobMapping {
+        private final String jobTitle;
+        private final List<String> requiredSkills;
+
+        JobMapping(String jobTitle, List<String> requiredSkills) {
+            this.jobTitle = jobTitle;
+            this.requiredSkills = requiredSkills;
+        }
+
+        public String getJobTitle() {
+            return jobTitle;
+        }
+
+        public List<String> getRequiredSkills() {
+            return requiredSkills;
+        }
+    }
+
+    /**
+     * One immutable version of the catalog: the jobs in file order, the jobs keyed by normalized
+     * title, and the raw file bytes with their strong ETag.
+     */
+    public static final class Snapshot {
+        private final List<JobMapping> jobs;
+        private final Map<String, JobMapping> jobsByTitle;
+        private final byte[] json;
+        private final String etag;
+
+        Snapshot(List<JobMapping> jobs, byte[] json) {
+            this.jobs = List.copyOf(jobs);
+            Map<String, JobMapping> byTitle = new LinkedHashMap<>();
+            for (JobMapping job : jobs) {
+                byTitle.putIfAbsent(normalizeTitle(job.getJobTitle()), job);
+            }
+            this.jobsByTitle = Collections.unmodifiableMap(byTitle);
+            this.json = json;
+            this.etag = "\"" + sha256Hex(json) + "\"";
+        }
+
+        public List<JobMapping> getJobs() {
+            return jobs;
+        }
+
+        public Optional<JobMapping> findByTitle(String title) {
+            return Optional.ofNullable(jobsByTitle.get(normalizeTitle(title)));
+        }
+
+        /**
+         * @return The file bytes exactly as read. Callers must not modify the array.
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Path override = overrideFile();
+        if (override != null && Files.isRegularFile(override)) {
+            snapshot.set(parse(Files.readAllBytes(override)));
+        } else {
+            try (InputStream in = resourceLoader.getResource(CLASSPATH_LOCATION).getInputStream()) {
+                snapshot.set(parse(in.readAllBytes()));
+            }
+        }
+        if (override != null) {
+            startWatcher(override);
+        }
+    }
+
+    @PreDestroy
+    public void stopWatcher() throws IOException {
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * @return The current catalog. The returned snapshot never changes; a reload replaces it.
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Lower-cases a job title and collapses runs of whitespace into a single space.
+     *
+     * @param title The raw title.
+     * @return The normalized title, or an empty string if the input is null.
+     */
+    public static String normalizeTitle(String title) {
+        if (title == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(title.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private Snapshot parse(byte[] json) throws IOException {
+        JobSkillsMappingFile file = objectMapper.readValue(json, JobSkillsMappingFile.class);
+        List<JobMapping> jobs = new ArrayList<>();
+        if (file.jobSkillsMapping != null) {
+            for (JobMappingEntry entry : file.jobSkillsMapping) {
+                if (entry.jobTitle == null) {
+                    continue;
+                }
+                List<String> skills = entry.requiredSkills == null ? List.of() : List.copyOf(entry.requiredSkills);
+                jobs.add(new JobMapping(entry.jobTitle, skills));
+            }
+        }
+        return new Snapshot(jobs, json);
+    }
+
+    private Path overrideFile() {
+        if (overridePath == null || overridePath.isBlank()) {
+            return null;
+        }
+        return Paths.get(overridePath).toAbsolutePath();
+    }
+
+    private void startWatcher(Path file) throws IOException {
+        Path directory = file.getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            log.warn("Job skills override directory does not exist, not watching: {}", directory);
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        watcherThread = new Thread(() -> watch(directory, file), "job-skills-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void watch(Path directory, Path file) {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                Object context = event.context();
+                if (context instanceof Path && directory.resolve((Path) context).equals(file)) {
+                    changed = true;
+                }
+            }
+            if (changed) {
+                reload(file);
+            }
+            if (!key.reset()) {
+                return;
+            }
+        }
+    }
+
+    private void reload(Path file) {
+        try {
+            snapshot.set(parse(Files.readAllBytes(file)));
+            log.info("Reloaded job skills mapping from {}", file);
+        } catch (IOException e) {
+            // Keep serving the previous snapshot until the file is valid again
+            log.warn("Error reloading job skills mapping from {}", file, e);
+        }
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.cgs.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count, mean and maximum of an operation's latency since startup, and percentiles over its
+ * most recent {@value #WINDOW} samples. Safe for concurrent use.
+ */
+public final class LatencyStats {
+
+    private static final int WINDOW = 2048;
+
+    private final long[] recent = new long[WINDOW];
+
+    private long count;
+
+    private long totalNanos;
+
+    private long maxNanos;
+
+    public synchronized void record(long nanos) {
+        recent[(int) (count % WINDOW)] = nanos;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * @return count, meanMs, p50Ms, p90Ms, p99Ms and maxMs.
+     */
+    public Map<String, Object> snapshot() {
+        long[] window;
+        long count;
+        long total;
+        long max;
+        synchronized (this) {
+            count = this.count;
+            total = totalNanos;
+            max = maxNanos;
+            window = Arrays.copyOf(recent, (int) Math.min(count, WINDOW));
+        }
+        Arrays.sort(window);
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", count);
+        snapshot.put("meanMs", count == 0 ? 0.0 : millis(total / count));
+        snapshot.put("p50Ms", percentile(window, 50));
+        snapshot.put("p90Ms", percentile(window, 90));
+        snapshot.put("p99Ms", percentile(window, 99));
+        snapshot.put("maxMs", millis(max));
+        return snapshot;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return millis(sorted[Math.max(index, 0)]);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.cgs.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes repository streams as newline-delimited JSON, one row per line, as the rows come off
+ * the JDBC cursor.
+ *
+ * Each row is detached once written, so neither the response nor the persistence context ever
+ * holds the whole result.
+ */
+@Component
+public class NdjsonStreamer {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param rows Opens the repository stream; called on the response thread inside a read-only
+     *             transaction, which stays open until the last row is written.
+     * @return A streaming NDJSON response.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> rows) {
+        StreamingResponseBody body = out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<T> stream = rows.get();
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    // Rows are separated by the newline written below, not by Jackson's default space
+                    generator.setRootValueSeparator(null);
+                    ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                    Iterator<T> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        T row = iterator.next();
+                        writer.writeValue(generator, row);
+                        generator.writeRaw('\n');
+                        entityManager.detach(row);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+}
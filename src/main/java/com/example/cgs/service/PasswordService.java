@@ -0,0 +1,176 @@
+package com.example.cgs.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Hashes and verifies passwords with BCrypt off the request threads.
+ *
+ * BCrypt is deliberately slow, so every hash and check runs on a small dedicated pool with a
+ * bounded queue; when the queue is full the returned future fails with
+ * {@link RejectedExecutionException} and the caller can answer 503 instead of piling up
+ * request threads. The cost is set with {@code cgs.password.bcrypt-strength}; pick it with
+ * PasswordHashingBenchmark on the production hardware.
+ *
+ * Passwords stored before hashing was introduced are plaintext. They still verify, and are
+ * reported as needing a rehash, as are hashes of a lower strength than the configured one.
+ */
+@Service
+public class PasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordService.class);
+
+    // $2a$, $2b$ or $2y$, two-digit cost, then 53 characters of salt and hash
+    private static final Pattern BCRYPT = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}");
+
+    private final BCryptPasswordEncoder encoder;
+
+    private final ThreadPoolExecutor executor;
+
+    // Time from submission until a worker picks the task up, the BCrypt work itself, and whole logins
+    private final LatencyStats queueWait = new LatencyStats();
+    private final LatencyStats hashing = new LatencyStats();
+    private final LatencyStats logins = new LatencyStats();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Outcome of checking a password against the stored value.
+     */
+    public enum Verification {
+        NO_MATCH,
+        MATCH,
+        // Correct, but stored as plaintext or with a lower cost than configured
+        MATCH_NEEDS_REHASH;
+
+        public boolean matches() {
+            return this != NO_MATCH;
+        }
+    }
+
+    /**
+     * @param strength BCrypt log rounds; each step doubles the cost of a hash.
+     * @param threads Workers hashing in parallel; defaults to the number of cores.
+     * @param queueSize Hashes allowed to wait for a worker before new ones are rejected.
+     */
+    public PasswordService(@Value("${cgs.password.bcrypt-strength:10}") int strength,
+                           @Value("${cgs.password.threads:0}") int threads,
+                           @Value("${cgs.password.queue-size:200}") int queueSize) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable task) {
+                        Thread thread = new Thread(task, "password-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing with BCrypt strength {} on {} threads, queue {}", strength, workers, queueSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param rawPassword The password as entered.
+     * @return The BCrypt hash to store; fails with RejectedExecutionException when overloaded.
+     */
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against its stored hash, or against a legacy plaintext value.
+     *
+     * @param rawPassword The password as entered.
+     * @param stored The stored hash or legacy plaintext; null never matches.
+     * @return The outcome; fails with RejectedExecutionException when overloaded.
+     */
+    public CompletableFuture<Verification> verify(String rawPassword, String stored) {
+        if (rawPassword == null || stored == null) {
+            return CompletableFuture.completedFuture(Verification.NO_MATCH);
+        }
+        if (!isHash(stored)) {
+            // Legacy plaintext: no BCrypt work, but compare in constant time all the same
+            boolean matches = MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+            return CompletableFuture.completedFuture(matches ? Verification.MATCH_NEEDS_REHASH : Verification.NO_MATCH);
+        }
+        return submit(() -> {
+            if (!encoder.matches(rawPassword, stored)) {
+                return Verification.NO_MATCH;
+            }
+            return encoder.upgradeEncoding(stored) ? Verification.MATCH_NEEDS_REHASH : Verification.MATCH;
+        });
+    }
+
+    /**
+     * @param stored A stored password value.
+     * @return Whether it is a BCrypt hash rather than legacy plaintext.
+     */
+    public static boolean isHash(String stored) {
+        return stored != null && BCRYPT.matcher(stored).matches();
+    }
+
+    /**
+     * Records how long a login request took, from receipt to response.
+     *
+     * @param nanos The elapsed time.
+     */
+    public void recordLogin(long nanos) {
+        logins.record(nanos);
+    }
+
+    /**
+     * @return Login latency, and queue depth, rejections and latency of the hashing pool.
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("login", logins.snapshot());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("rejected", rejected.get());
+        metrics.put("queueWait", queueWait.snapshot());
+        metrics.put("hashing", hashing.snapshot());
+        return metrics;
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> work) {
+        long submitted = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted);
+                try {
+                    return work.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                } finally {
+                    hashing.record(System.nanoTime() - started);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -11,8 +11,13 @@ public class ProfileService {
     @Autowired
     private ProfileRepository profileRepository;
 
+    @Autowired
+    private UserIdentityService userIdentityService;
+
     public Profile getProfileByEmail(String email) {
-        return profileRepository.findByEmail(email).orElse(null);
+        // Loaded by ID, so a recently read profile comes from the second-level cache
+        Long id = userIdentityService.resolve(email).profileId();
+        return id == null ? null : profileRepository.findById(id).orElse(null);
     }
 
     public Profile saveProfile(Profile profile) {
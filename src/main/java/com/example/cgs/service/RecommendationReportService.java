@@ -0,0 +1,271 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.RecommendationRun;
+import com.example.cgs.entities.UserProfile;
+import com.example.cgs.entities.UserRecommendation;
+import com.example.cgs.repositories.CoursesRepository;
+import com.example.cgs.repositories.RecommendationRunRepository;
+import com.example.cgs.repositories.UserProfileRepository;
+import com.example.cgs.repositories.UserRecommendationRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Nightly course recommendations for every user profile, materialized in the
+ * user_recommendation table for counsellors' reports.
+ *
+ * A run streams the profiles in ID order and handles them in chunks: the chunk's skills are
+ * loaded in batches, its users are scored in parallel against the in-memory course index, and
+ * the results are written with one JDBC batch insert in their own transaction. Readers only see
+ * the latest finished run; rows of older runs are deleted once a new run finishes.
+ *
+ * The nightly schedule only runs where {@code cgs.recommendation-report.enabled} is true, so a
+ * deployment with several instances turns it on for one of them.
+ */
+@Service
+public class RecommendationReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationReportService.class);
+
+    // Profiles read, scored and written together
+    static final int CHUNK_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "insert into user_recommendation (run_id, user_email, course_rank, course_id) values (?, ?, ?, ?)";
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private RecommendationRunRepository recommendationRunRepository;
+
+    @Autowired
+    private UserRecommendationRepository userRecommendationRepository;
+
+    @Autowired
+    private CoursesRepository coursesRepository;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Courses stored per user
+    @Value("${cgs.recommendation-report.depth:20}")
+    private int depth;
+
+    // Whether this instance runs the nightly schedule; runs started from the API are unaffected
+    @Value("${cgs.recommendation-report.enabled:false}")
+    private boolean scheduled;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Scores the users of a chunk
+    private final ForkJoinPool scoringPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("recommendation-report-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+
+    // Runs reports started from the API
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "recommendation-report");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Scored(String email, List<Courses> courses) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        scoringPool.shutdownNow();
+    }
+
+    @Scheduled(cron = "${cgs.recommendation-report.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        if (!scheduled) {
+            return;
+        }
+        run();
+    }
+
+    /**
+     * Starts a run on a background thread.
+     *
+     * @return False if a run is already in progress.
+     */
+    public boolean startRun() {
+        if (running.get()) {
+            return false;
+        }
+        runner.execute(this::run);
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Computes and stores the recommendations of every user profile.
+     *
+     * @return The finished run, or empty if another run was already in progress.
+     */
+    public Optional<RecommendationRun> run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Recommendation report is already running");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(execute());
+        } catch (RuntimeException e) {
+            log.error("Recommendation report failed", e);
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return The latest finished run, if any.
+     */
+    public Optional<RecommendationRun> latestRun() {
+        return recommendationRunRepository.findFirstByFinishedAtIsNotNullOrderByIdDesc();
+    }
+
+    /**
+     * Reads one user's recommendations from the latest finished run.
+     *
+     * @param email The user's email.
+     * @return Recommended courses, best match first; empty if there is no finished run.
+     */
+    public List<Courses> reportFor(String email) {
+        Optional<RecommendationRun> run = latestRun();
+        if (run.isEmpty()) {
+            return List.of();
+        }
+        List<UserRecommendation> rows = userRecommendationRepository.findByRunIdAndUserEmailOrderByCourseRankAsc(run.get().getId(), email);
+        Map<Long, Courses> courses = coursesRepository.findAllById(rows.stream().map(UserRecommendation::getCourseId).toList())
+                .stream()
+                .collect(Collectors.toMap(Courses::getId, Function.identity()));
+        // Courses deleted since the run are left out
+        return rows.stream()
+                .map(row -> courses.get(row.getCourseId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private RecommendationRun execute() {
+        // Writes use their own connection, so they commit while the profile stream stays open
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+
+        RecommendationRun started = new RecommendationRun();
+        started.setStartedAt(Instant.now());
+        RecommendationRun run = write.execute(status -> recommendationRunRepository.save(started));
+        long runId = run.getId();
+        long start = System.nanoTime();
+
+        Integer users = read.execute(status -> {
+            // Every profile passes through once; keep them out of the second-level cache kept for active users
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+            int count = 0;
+            List<UserProfile> chunk = new ArrayList<>(CHUNK_SIZE);
+            try (Stream<UserProfile> profiles = userProfileRepository.streamAllByOrderByIdAsc()) {
+                Iterator<UserProfile> iterator = profiles.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == CHUNK_SIZE) {
+                        count += writeChunk(runId, chunk, write);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                count += writeChunk(runId, chunk, write);
+            }
+            return count;
+        });
+
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+        run.setFinishedAt(Instant.now());
+        run.setUsers(users);
+        run.setUsersPerSecond(users / seconds);
+        write.executeWithoutResult(status -> {
+            recommendationRunRepository.save(run);
+            // Only older runs: a later run started elsewhere may still be inserting its rows
+            jdbcTemplate.update("delete from user_recommendation where run_id < ?", runId);
+        });
+        log.info("Recommendation report {}: {} users in {} ms ({} users/s)",
+                runId, users, Math.round(seconds * 1000), Math.round(run.getUsersPerSecond()));
+        return run;
+    }
+
+    /**
+     * Scores a chunk of profiles and inserts their recommendations, then empties the chunk and
+     * the persistence context.
+     *
+     * @return How many profiles were scored.
+     */
+    private int writeChunk(long runId, List<UserProfile> chunk, TransactionTemplate write) {
+        // The first access loads the skills of up to 100 profiles of the chunk at once (@BatchSize)
+        for (UserProfile profile : chunk) {
+            Hibernate.initialize(profile.getSkills());
+        }
+
+        List<Scored> scored = scoringPool.submit(() -> chunk.parallelStream()
+                .filter(profile -> profile.getEmail() != null)
+                .map(profile -> new Scored(profile.getEmail(), recommendationService.recommend(profile, depth).courses()))
+                .toList()).join();
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Scored user : scored) {
+            for (int rank = 0; rank < user.courses().size(); rank++) {
+                rows.add(new Object[]{runId, user.email(), rank + 1, user.courses().get(rank).getId()});
+            }
+        }
+        write.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+
+        int count = chunk.size();
+        chunk.clear();
+        entityManager.clear();
+        return count;
+    }
+}
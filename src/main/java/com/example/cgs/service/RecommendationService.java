@@ -0,0 +1,350 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.Skill;
+import com.example.cgs.entities.UserProfile;
+import com.example.cgs.service.CourseSkillIndex.TopCourses;
+import com.example.cgs.service.JobSkillsCatalog.JobMapping;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Course recommendations per user, computed in the background and cached until the user's
+ * profile or the catalog changes.
+ *
+ * Each cached result records the profile version and catalog version it was computed from.
+ * Profile writes bump the user's version and start a recompute right away; catalog changes
+ * are picked up on the next read, which keeps serving the previous result while the new one
+ * is computed.
+ *
+ * Results are ranked only as deep as clients have paged: a result holds the best
+ * {@code depth} courses and the total number of matches, and is recomputed deeper when a
+ * later page needs it.
+ *
+ * The sizes of users' missing-skill sets and of computed results are published as
+ * {@code cgs.recommendation.missing.skills} and {@code cgs.recommendation.results}.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private CourseSkillIndex courseSkillIndex;
+
+    @Autowired
+    private CareerGoalResolver careerGoalResolver;
+
+    @Autowired
+    private JobSkillsCatalog jobSkillsCatalog;
+
+    // Fewest courses ranked per user, so the first few pages come from one computation
+    static final int MIN_DEPTH = 50;
+
+    // Email -> latest computed recommendations
+    private final Cache<String, Result> results = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    // Email -> number of profile writes seen; missing means no write since startup or not
+    // read for an hour. Evicting a version drops the result computed from it, which would
+    // otherwise look newer than anything computed after it.
+    private final Cache<String, Long> profileVersions = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .evictionListener((String email, Long version, RemovalCause cause) -> results.invalidate(email))
+            .build();
+
+    // Recomputes in progress, so concurrent readers share one
+    private final Map<Key, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "recommendation-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private static final TopCourses NONE = new TopCourses(List.of(), 0);
+
+    // Skills a user lacks, for a career goal's job or for the whole catalog
+    private final DistributionSummary goalMissingSkills;
+    private final DistributionSummary catalogMissingSkills;
+
+    // Courses matching a user, of which the best are kept
+    private final DistributionSummary resultSizes;
+
+    // What a result was computed from
+    private record Key(String email, long profileVersion, long courseVersion, JobSkillsCatalog.Snapshot jobs) {
+    }
+
+    private record Result(Key key, int depth, TopCourses top) {
+
+        // Whether this result holds every course a page ending at depth needs
+        boolean covers(int depth) {
+            return top.isComplete() || this.depth >= depth;
+        }
+
+        int reach() {
+            return top.isComplete() ? Integer.MAX_VALUE : depth;
+        }
+    }
+
+    public RecommendationService(MeterRegistry meterRegistry) {
+        this.goalMissingSkills = missingSkillsSummary(meterRegistry, "career-goal");
+        this.catalogMissingSkills = missingSkillsSummary(meterRegistry, "catalog");
+        this.resultSizes = DistributionSummary.builder("cgs.recommendation.results")
+                .description("Courses recommended per computation")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns all of the user's recommendations.
+     *
+     * @param email The user's email.
+     * @return Recommended courses, best match first.
+     */
+    public List<Courses> recommendationsFor(String email) {
+        return recommendationsFor(email, 0, Integer.MAX_VALUE).courses();
+    }
+
+    /**
+     * Returns one page of the user's recommendations. A cached result is returned when the
+     * profile hasn't changed since it was computed, even if the catalog has, minus the courses
+     * deleted since; only the first request for a user, the first after a profile change, or a
+     * page beyond the cached depth waits for a computation.
+     *
+     * @param email The user's email.
+     * @param offset How many of the best courses to skip.
+     * @param limit How many courses to return at most.
+     * @return The page, best match first, with the total number of recommended courses.
+     */
+    public TopCourses recommendationsFor(String email, int offset, int limit) {
+        int depth = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_DEPTH, (long) offset + limit));
+        Key current = currentKey(email);
+        Result cached = results.getIfPresent(email);
+        if (cached != null && cached.key().profileVersion() == current.profileVersion() && cached.covers(depth)) {
+            if (!cached.key().equals(current)) {
+                refresh(current, cached.depth());
+            }
+            if (cached.key().courseVersion() != current.courseVersion()) {
+                return page(withoutRemovedCourses(cached.top()), offset, limit);
+            }
+            return page(cached.top(), offset, limit);
+        }
+        Result result = refresh(current, depth).join();
+        if (!result.covers(depth)) {
+            // A shallower computation for the same data was already running
+            result = compute(current, depth);
+            store(result);
+        }
+        return page(result.top(), offset, limit);
+    }
+
+    /**
+     * Invalidates the user's recommendations and starts recomputing them. Called after the
+     * user's skills or career goal are saved.
+     *
+     * @param email The user's email.
+     */
+    public void profileChanged(String email) {
+        profileVersions.asMap().merge(email, 1L, Long::sum);
+        Result cached = results.getIfPresent(email);
+        refresh(currentKey(email), cached != null ? cached.depth() : MIN_DEPTH);
+    }
+
+    private Key currentKey(String email) {
+        Long profileVersion = profileVersions.getIfPresent(email);
+        return new Key(email, profileVersion != null ? profileVersion : 0L,
+                courseSkillIndex.version(), jobSkillsCatalog.snapshot());
+    }
+
+    private CompletableFuture<Result> refresh(Key key, int depth) {
+        CompletableFuture<Result> created = new CompletableFuture<>();
+        CompletableFuture<Result> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture.supplyAsync(() -> compute(key, depth), executor).whenComplete((result, error) -> {
+            if (error != null) {
+                log.error("Error computing recommendations for {}", key.email(), error);
+                inFlight.remove(key, created);
+                created.completeExceptionally(error);
+                return;
+            }
+            store(result);
+            inFlight.remove(key, created);
+            created.complete(result);
+        });
+        return created;
+    }
+
+    private void store(Result result) {
+        // Never replace a result computed from newer data, or a deeper one from the same data
+        results.asMap().merge(result.key().email(), result, (previous, next) ->
+                (isNewer(previous.key(), next.key())
+                        || previous.key().equals(next.key()) && previous.reach() > next.reach()) ? previous : next);
+    }
+
+    // A stale result keeps its ranking until the refresh lands, but never offers a deleted course
+    private TopCourses withoutRemovedCourses(TopCourses top) {
+        List<Courses> kept = new ArrayList<>(top.courses().size());
+        for (Courses course : top.courses()) {
+            Courses indexed = courseSkillIndex.get(course.getId());
+            if (indexed != null) {
+                kept.add(indexed);
+            }
+        }
+        return new TopCourses(kept, top.total() - (top.courses().size() - kept.size()));
+    }
+
+    private static TopCourses page(TopCourses top, int offset, int limit) {
+        List<Courses> courses = top.courses();
+        int from = Math.min(Math.max(offset, 0), courses.size());
+        int to = (int) Math.min(courses.size(), (long) from + Math.max(limit, 0));
+        return new TopCourses(courses.subList(from, to), top.total());
+    }
+
+    private static boolean isNewer(Key a, Key b) {
+        if (a.profileVersion() != b.profileVersion()) {
+            return a.profileVersion() > b.profileVersion();
+        }
+        return a.courseVersion() > b.courseVersion();
+    }
+
+    private Result compute(Key key, int depth) {
+        UserProfile user = userProfileService.getUserProfileByEmail(key.email());
+        if (user == null) {
+            log.debug("User profile not found for {}", key.email());
+            return new Result(key, depth, NONE);
+        }
+        TopCourses top = recommend(user, depth);
+        resultSizes.record(top.total());
+        return new Result(key, depth, new TopCourses(List.copyOf(top.courses()), top.total()));
+    }
+
+    private static DistributionSummary missingSkillsSummary(MeterRegistry meterRegistry, String against) {
+        return DistributionSummary.builder("cgs.recommendation.missing.skills")
+                .description("Skills a user lacks when recommendations are computed")
+                .tag("against", against)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(100_000.0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Recommends courses for the user's career goal, or for every skill the user lacks when
+     * there is no goal or it matches no known job.
+     *
+     * @param user The user profile, with its skills loaded.
+     * @param limit How many of the best courses to return.
+     * @return Recommended courses sorted by match score, with the number of matching courses.
+     */
+    TopCourses recommend(UserProfile user, int limit) {
+        // Courses are served from the in-memory skill index rather than the database
+        log.debug("Total courses found: {}", courseSkillIndex.size());
+
+        // If no courses are available, return empty list
+        if (courseSkillIndex.isEmpty()) {
+            return NONE;
+        }
+
+        // If user has no career goal, recommend courses based on skills the user doesn't have
+        if (user.getCareerGoal() == null || user.getCareerGoal().trim().isEmpty()) {
+            log.debug("No career goal specified, recommending courses for missing skills");
+            return recommendForAllMissingSkills(user, limit);
+        }
+
+        // Only build the skill list when diagnostics are on for this request
+        if (log.isDebugEnabled()) {
+            log.debug("User Skills: {}", user.getSkills() != null ? user.getSkills().stream()
+                .map(skill -> skill.getSkill())
+                .collect(Collectors.joining(", ")) : "None");
+            log.debug("Career Goal: {}", user.getCareerGoal());
+        }
+
+        // Exact match first, then partial match, against lookup tables compiled once per catalog
+        Optional<JobMapping> targetJob = careerGoalResolver.resolve(user.getCareerGoal());
+
+        // If still no match, recommend courses based on skills the user doesn't have
+        if (targetJob.isEmpty()) {
+            log.debug("No matching job title found for: {}, recommending courses for missing skills", user.getCareerGoal());
+            return recommendForAllMissingSkills(user, limit);
+        }
+
+        // Get user's existing skills
+        Set<String> userSkills = normalizedUserSkills(user);
+
+        // Find skills required for the job that the user doesn't have
+        Set<String> missingSkills = targetJob.get().getRequiredSkills().stream()
+            .map(Skill::normalize)
+            .filter(skill -> !userSkills.contains(skill))
+            .collect(Collectors.toSet());
+
+        log.debug("Missing Skills for job {}: {}", targetJob.get().getJobTitle(), missingSkills);
+        goalMissingSkills.record(missingSkills.size());
+
+        // If user already has all required skills for the job
+        if (missingSkills.isEmpty()) {
+            log.debug("User already has all required skills for the job: {}", targetJob.get().getJobTitle());
+            return NONE;
+        }
+
+        // Recommend courses that teach the missing skills
+        TopCourses recommendedCourses = courseSkillIndex.recommend(missingSkills, limit);
+        log.debug("Recommended courses count: {}", recommendedCourses.total());
+        return recommendedCourses;
+    }
+
+    private TopCourses recommendForAllMissingSkills(UserProfile user, int limit) {
+        Set<String> userSkills = normalizedUserSkills(user);
+        catalogMissingSkills.record(courseSkillIndex.missingSkillCount(userSkills));
+        if (log.isDebugEnabled()) {
+            log.debug("Skills user doesn't have: {}", courseSkillIndex.missingSkills(userSkills));
+        }
+
+        // Scored against the complement of the user's skill bitset; empty if the user has every skill
+        TopCourses recommendedCourses = courseSkillIndex.recommendMissing(userSkills, limit);
+        log.debug("Recommended courses count: {}", recommendedCourses.total());
+        return recommendedCourses;
+    }
+
+    private Set<String> normalizedUserSkills(UserProfile user) {
+        if (user.getSkills() == null) {
+            return new HashSet<>();
+        }
+        return user.getSkills().stream()
+            .map(skill -> Skill.normalize(skill.getSkill()))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.cgs.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The SQL statements one request ran: how many, how long they took together, the slowest one,
+ * and how often each statement shape repeated. Bound to the request's threads by
+ * {@link com.example.cgs.config.SqlTimingFilter}; safe for the request's helper threads to
+ * record into concurrently.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+
+    // (?,?,?) from an IN list of any length
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private int queries;
+
+    private long totalNanos;
+
+    private long slowestNanos;
+
+    private String slowestSql;
+
+    // Statement shape -> executions
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private String repeatedShape;
+
+    private int repeatedCount;
+
+    /**
+     * @return The stats of the request running on this thread, or {@code null} outside requests.
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes {@code stats} the current thread's request stats.
+     *
+     * @return The stats bound before, to hand back to {@link #restore}.
+     */
+    public static RequestSqlStats bind(RequestSqlStats stats) {
+        RequestSqlStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    public static void restore(RequestSqlStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @param sql The statement as sent to the driver.
+     * @param nanos How long it took.
+     * @return How many times this request has now run statements of the same shape.
+     */
+    public synchronized int record(String sql, long nanos) {
+        queries++;
+        totalNanos += nanos;
+        if (nanos > slowestNanos || slowestSql == null) {
+            slowestNanos = nanos;
+            slowestSql = sql;
+        }
+        String shape = shapeOf(sql);
+        int count = shapes.merge(shape, 1, Integer::sum);
+        if (count > repeatedCount) {
+            repeatedCount = count;
+            repeatedShape = shape;
+        }
+        return count;
+    }
+
+    public synchronized int getQueries() {
+        return queries;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public synchronized long getSlowestNanos() {
+        return slowestNanos;
+    }
+
+    public synchronized String getSlowestSql() {
+        return slowestSql;
+    }
+
+    /**
+     * @return The shape this request ran most often, or {@code null} if it ran no statements.
+     */
+    public synchronized String getRepeatedShape() {
+        return repeatedShape;
+    }
+
+    public synchronized int getRepeatedCount() {
+        return repeatedCount;
+    }
+
+    /**
+     * Reduces a statement to its shape: literals and parameter lists are replaced, so the same
+     * lookup with different IDs or IN lists of different lengths counts as one shape.
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.cgs.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Selects the best-scoring items of a {@link SkillMatrix}.
+ *
+ * Small matrices are scored on the calling thread. From {@link #DEFAULT_PARALLEL_THRESHOLD}
+ * items on, the positions are split into chunks scored on a dedicated {@link ForkJoinPool};
+ * each chunk keeps its own top-K and the chunks' results are merged pairwise, so no step
+ * holds more than K keys per chunk.
+ *
+ * Ranking time and the number of items scored are published as {@code cgs.scoring.rank} and
+ * {@code cgs.scoring.items} on the registry the engine is created with.
+ */
+public final class ScoringEngine {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    // Smallest chunk worth a task of its own
+    private static final int MIN_CHUNK = 8_192;
+
+    private final Timer sequential;
+
+    private final Timer parallel;
+
+    private final DistributionSummary items;
+
+    private final ForkJoinPool pool;
+
+    private final int parallelThreshold;
+
+    /**
+     * The best keys of a range of items and how many items in it scored at all.
+     *
+     * @param keys Sort keys of the best items, ascending: negated score in the high half and
+     *             position in the low half, so ties are broken by position.
+     * @param total How many items scored above zero.
+     */
+    record Ranked(long[] keys, int total) {
+
+        /**
+         * @param key An element of {@link #keys()}.
+         * @return The position of the item the key belongs to.
+         */
+        static int positionOf(long key) {
+            return (int) key;
+        }
+    }
+
+    // Outside Spring, e.g. in tests and benchmarks, the meters go to a registry of their own
+    public ScoringEngine() {
+        this(new SimpleMeterRegistry());
+    }
+
+    public ScoringEngine(MeterRegistry meterRegistry) {
+        this(meterRegistry, Runtime.getRuntime().availableProcessors(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public ScoringEngine(int parallelism, int parallelThreshold) {
+        this(new SimpleMeterRegistry(), parallelism, parallelThreshold);
+    }
+
+    /**
+     * @param meterRegistry Where the ranking meters are registered.
+     * @param parallelism Worker threads of the pool; 1 always scores on the calling thread.
+     * @param parallelThreshold Fewest items that are scored in parallel.
+     */
+    public ScoringEngine(MeterRegistry meterRegistry, int parallelism, int parallelThreshold) {
+        this.sequential = rankTimer(meterRegistry, "sequential");
+        this.parallel = rankTimer(meterRegistry, "parallel");
+        this.items = DistributionSummary.builder("cgs.scoring.items")
+                .description("Items scored per ranking")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(10_000_000.0)
+                .register(meterRegistry);
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("skill-scoring-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Scores every item by the popcount of its bits and the target's and keeps the best
+     * {@code limit} with a non-zero score.
+     *
+     * @param matrix The items' skill bitsets.
+     * @param target The bitset being matched.
+     * @param limit How many items to keep at most.
+     * @return The best items' keys, best first, and the number of matching items.
+     */
+    Ranked rank(SkillMatrix matrix, long[] target, int limit) {
+        int k = Math.max(limit, 0);
+        int size = matrix.size();
+        items.record(size);
+        if (size < parallelThreshold || pool.getParallelism() == 1) {
+            return sequential.record(() -> rankRange(matrix, target, k, 0, size));
+        }
+        int chunk = Math.max(MIN_CHUNK, size / (pool.getParallelism() * 4));
+        return parallel.record(() -> pool.invoke(new RankTask(matrix, target, k, 0, size, chunk)));
+    }
+
+    private static Timer rankTimer(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder("cgs.scoring.rank")
+                .description("Time to rank a skill matrix")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static final class RankTask extends RecursiveTask<Ranked> {
+        private final SkillMatrix matrix;
+        private final long[] target;
+        private final int k;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        RankTask(SkillMatrix matrix, long[] target, int k, int from, int to, int chunk) {
+            this.matrix = matrix;
+            this.target = target;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected Ranked compute() {
+            if (to - from <= chunk) {
+                return rankRange(matrix, target, k, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            RankTask left = new RankTask(matrix, target, k, from, middle, chunk);
+            left.fork();
+            Ranked right = new RankTask(matrix, target, k, middle, to, chunk).compute();
+            return merge(left.join(), right, k);
+        }
+    }
+
+    /**
+     * Scores the items in [from, to) and keeps the best k. When fewer are wanted than matched,
+     * a bounded max-heap holds the k smallest keys seen so far, so only those are sorted.
+     */
+    static Ranked rankRange(SkillMatrix matrix, long[] target, int k, int from, int to) {
+        int[] scores = new int[to - from];
+        int count = matrix.score(target, from, to, scores);
+
+        int kept = Math.min(k, count);
+        long[] keys = new long[kept];
+        if (kept == count) {
+            for (int i = 0, next = 0; next < count; i++) {
+                if (scores[i] > 0) {
+                    keys[next++] = key(scores[i], from + i);
+                }
+            }
+        } else if (kept > 0) {
+            int size = 0;
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] == 0) {
+                    continue;
+                }
+                long key = key(scores[i], from + i);
+                if (size < kept) {
+                    keys[size] = key;
+                    siftUp(keys, size++);
+                } else if (key < keys[0]) {
+                    keys[0] = key;
+                    siftDown(keys, kept);
+                }
+            }
+        }
+        Arrays.sort(keys);
+        return new Ranked(keys, count);
+    }
+
+    /**
+     * Merges the sorted keys of two ranges, keeping the best k.
+     */
+    static Ranked merge(Ranked a, Ranked b, int k) {
+        long[] left = a.keys();
+        long[] right = b.keys();
+        long[] keys = new long[Math.min(k, left.length + right.length)];
+        int i = 0;
+        int j = 0;
+        for (int next = 0; next < keys.length; next++) {
+            keys[next] = j == right.length || i < left.length && left[i] < right[j] ? left[i++] : right[j++];
+        }
+        return new Ranked(keys, a.total() + b.total());
+    }
+
+    private static long key(int score, int position) {
+        return ((long) -score << 32) | position;
+    }
+
+    private static void siftUp(long[] heap, int child) {
+        long key = heap[child];
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (heap[parent] >= key) {
+                break;
+            }
+            heap[child] = heap[parent];
+            child = parent;
+        }
+        heap[child] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long key = heap[0];
+        int parent = 0;
+        int child;
+        while ((child = 2 * parent + 1) < size) {
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (key >= heap[child]) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = key;
+    }
+}
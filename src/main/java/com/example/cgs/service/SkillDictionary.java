@@ -0,0 +1,117 @@
+package com.example.cgs.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each normalized skill a dense int ID, so a set of skills can be held as a
+ * {@code long[]} bitset with bit {@code id} set for every skill in it.
+ *
+ * IDs are never reused: a skill keeps its ID after the last course teaching it is removed, so
+ * bitsets computed earlier stay valid. Safe for concurrent readers while skills are interned.
+ */
+public final class SkillDictionary {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private volatile int size;
+
+    /**
+     * Returns the ID of a skill, assigning the next free ID if it is new.
+     *
+     * @param skill A normalized skill name.
+     * @return The skill's ID.
+     */
+    public synchronized int intern(String skill) {
+        Integer id = ids.get(skill);
+        if (id == null) {
+            id = size;
+            ids.put(skill, id);
+            size = id + 1;
+        }
+        return id;
+    }
+
+    /**
+     * @param skill A normalized skill name.
+     * @return The skill's ID, or -1 if it was never interned.
+     */
+    public int idOf(String skill) {
+        Integer id = skill == null ? null : ids.get(skill);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return How many IDs have been assigned; every ID is below this.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builds the bitset of a set of skills, assigning IDs to new ones.
+     *
+     * @param skills Normalized skill names.
+     * @return A bitset just long enough to hold the highest ID.
+     */
+    public long[] internAll(Collection<String> skills) {
+        long[] bits = new long[0];
+        for (String skill : skills) {
+            bits = set(bits, intern(skill));
+        }
+        return bits;
+    }
+
+    /**
+     * Builds the bitset of a set of skills without assigning IDs. Skills that were never interned
+     * are left out, since nothing indexed can have them.
+     *
+     * @param skills Normalized skill names.
+     * @return A bitset just long enough to hold the highest known ID.
+     */
+    public long[] bitsOf(Collection<String> skills) {
+        long[] bits = new long[0];
+        for (String skill : skills) {
+            int id = idOf(skill);
+            if (id >= 0) {
+                bits = set(bits, id);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Builds the bitset of every known skill that is not in the given set.
+     *
+     * @param has The bitset of the skills to leave out.
+     * @return A bitset covering every assigned ID.
+     */
+    public long[] complementOf(long[] has) {
+        int size = this.size;
+        long[] bits = new long[words(size)];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = i < has.length ? ~has[i] : -1L;
+        }
+        // Clear the bits past the last assigned ID
+        if (size % 64 != 0) {
+            bits[bits.length - 1] &= (1L << size) - 1;
+        }
+        return bits;
+    }
+
+    private static long[] set(long[] bits, int id) {
+        int word = id >>> 6;
+        if (word >= bits.length) {
+            long[] grown = new long[word + 1];
+            System.arraycopy(bits, 0, grown, 0, bits.length);
+            bits = grown;
+        }
+        bits[word] |= 1L << id;
+        return bits;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.cgs.service;
+
+/**
+ * Skill bitsets of a fixed list of items stored by word rather than by item: for each 64-skill
+ * word, the positions of the items with a skill in it and their bits for that word. Scoring
+ * visits only the words of its target, and each word is a pair of contiguous arrays. Positions
+ * within a word are ascending, so a range of items can be scored on its own.
+ */
+final class SkillMatrix {
+
+    private final int size;
+    private final int[][] positions;
+    private final long[][] bits;
+
+    /**
+     * @param rows The skill bitset of each item, indexed by position.
+     */
+    SkillMatrix(long[][] rows) {
+        this.size = rows.length;
+        int words = 0;
+        for (long[] row : rows) {
+            words = Math.max(words, row.length);
+        }
+        int[] counts = new int[words];
+        for (long[] row : rows) {
+            for (int w = 0; w < row.length; w++) {
+                if (row[w] != 0) {
+                    counts[w]++;
+                }
+            }
+        }
+        positions = new int[words][];
+        bits = new long[words][];
+        for (int w = 0; w < words; w++) {
+            positions[w] = new int[counts[w]];
+            bits[w] = new long[counts[w]];
+            counts[w] = 0;
+        }
+        for (int i = 0; i < rows.length; i++) {
+            for (int w = 0; w < rows[i].length; w++) {
+                if (rows[i][w] != 0) {
+                    positions[w][counts[w]] = i;
+                    bits[w][counts[w]++] = rows[i][w];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of items.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds the popcount of each item's bits and the target's into {@code scores}.
+     *
+     * @param target The bitset being matched.
+     * @param from First position to score.
+     * @param to Position after the last one to score.
+     * @param scores Receives the score of position {@code from + i} at index {@code i}.
+     * @return How many items in the range scored above zero.
+     */
+    int score(long[] target, int from, int to, int[] scores) {
+        int count = 0;
+        for (int w = 0; w < Math.min(target.length, bits.length); w++) {
+            long want = target[w];
+            if (want == 0) {
+                continue;
+            }
+            int[] wordPositions = positions[w];
+            long[] wordBits = bits[w];
+            int j = from == 0 ? 0 : lowerBound(wordPositions, from);
+            for (; j < wordBits.length && wordPositions[j] < to; j++) {
+                int overlap = Long.bitCount(wordBits[j] & want);
+                if (overlap > 0) {
+                    int slot = wordPositions[j] - from;
+                    if (scores[slot] == 0) {
+                        count++;
+                    }
+                    scores[slot] += overlap;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int lowerBound(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.cgs.service;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records every statement run through the proxied data source into the current request's
+ * {@link RequestSqlStats}, and keeps per-endpoint totals since startup.
+ *
+ * A request that runs one statement shape more than {@code cgs.sql.n-plus-one-threshold} times
+ * is logged as a likely N+1: a lazy association or a per-row lookup inside a loop.
+ */
+@Component
+public class SqlMetrics implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetrics.class);
+
+    private static final String START_NANOS = "startNanos";
+
+    private final int nPlusOneThreshold;
+
+    // Controller method, e.g. "UserController.viewPlaylist" -> totals
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public SqlMetrics(@Value("${cgs.sql.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats == null || queryInfoList.isEmpty()) {
+            // Startup, scheduled jobs and other work outside requests
+            return;
+        }
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long nanos = start == null ? execInfo.getElapsedTime() * 1_000_000 : System.nanoTime() - start;
+        // A batch is one round trip; count it once under its first statement
+        int count = stats.record(queryInfoList.get(0).getQuery(), nanos);
+        if (count == nPlusOneThreshold + 1) {
+            log.warn("Possible N+1: {} statements of one shape in a single request: {}",
+                    count, queryInfoList.get(0).getQuery());
+        }
+    }
+
+    /**
+     * Adds a finished request to its endpoint's totals.
+     *
+     * @param endpoint The controller method that handled the request.
+     * @param stats The request's statements.
+     */
+    public void requestFinished(String endpoint, RequestSqlStats stats) {
+        endpoints.computeIfAbsent(endpoint, EndpointStats::new)
+                .add(stats, stats.getRepeatedCount() > nPlusOneThreshold);
+    }
+
+    /**
+     * @param limit How many endpoints to list.
+     * @return The endpoints that spent the most time in the database since startup, worst first.
+     */
+    public List<Map<String, Object>> worstEndpoints(int limit) {
+        // Requests keep adding to the live totals, so sort copies whose keys can't change mid-sort
+        List<Snapshot> sorted = new ArrayList<>();
+        for (EndpointStats endpoint : endpoints.values()) {
+            sorted.add(endpoint.snapshot());
+        }
+        sorted.sort(Comparator.comparingLong(Snapshot::totalNanos).reversed());
+        List<Map<String, Object>> worst = new ArrayList<>();
+        for (Snapshot endpoint : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            worst.add(endpoint.values());
+        }
+        return worst;
+    }
+
+    // One endpoint's totals at a point in time
+    private record Snapshot(long totalNanos, Map<String, Object> values) {
+    }
+
+    private static final class EndpointStats {
+
+        private final String endpoint;
+
+        private long requests;
+
+        private long queries;
+
+        private long totalNanos;
+
+        private int maxQueries;
+
+        private long slowestNanos;
+
+        private String slowestSql;
+
+        private long nPlusOneRequests;
+
+        private String nPlusOneShape;
+
+        EndpointStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized void add(RequestSqlStats stats, boolean nPlusOne) {
+            requests++;
+            queries += stats.getQueries();
+            totalNanos += stats.getTotalNanos();
+            maxQueries = Math.max(maxQueries, stats.getQueries());
+            if (stats.getSlowestSql() != null && stats.getSlowestNanos() >= slowestNanos) {
+                slowestNanos = stats.getSlowestNanos();
+                slowestSql = stats.getSlowestSql();
+            }
+            if (nPlusOne) {
+                nPlusOneRequests++;
+                nPlusOneShape = stats.getRepeatedShape();
+            }
+        }
+
+        synchronized Snapshot snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("endpoint", endpoint);
+            snapshot.put("requests", requests);
+            snapshot.put("queries", queries);
+            snapshot.put("queriesPerRequest", requests == 0 ? 0.0 : Math.round(100.0 * queries / requests) / 100.0);
+            snapshot.put("maxQueries", maxQueries);
+            snapshot.put("totalDbMs", millis(totalNanos));
+            snapshot.put("dbMsPerRequest", requests == 0 ? 0.0 : millis(totalNanos / requests));
+            snapshot.put("slowestMs", millis(slowestNanos));
+            snapshot.put("slowestSql", slowestSql);
+            snapshot.put("nPlusOneRequests", nPlusOneRequests);
+            snapshot.put("nPlusOneSql", nPlusOneShape);
+            return new Snapshot(totalNanos, Collections.unmodifiableMap(snapshot));
+        }
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
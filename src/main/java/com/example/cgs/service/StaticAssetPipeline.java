@@ -0,0 +1,221 @@
+package com.example.cgs.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prepares the files under {@code static/} for serving before the application takes requests.
+ *
+ * The results are written to the assets directory, which the resource handlers search before
+ * the classpath:
+ * <ul>
+ * <li>Stylesheets, scripts, SVGs and JSON are copied there with a gzip sibling
+ *     ({@code style.css.gz}), since compressed variants must sit next to the file they encode.</li>
+ * <li>PNG and JPEG images get downsized variants in {@link #VARIANT_WIDTHS}, named
+ *     {@code roadmap-1920w.png}, for {@code srcset}. The originals stay on the classpath.</li>
+ * </ul>
+ * Files already up to date are left alone, so only the first start after a change pays for
+ * resizing.
+ */
+@Component
+public class StaticAssetPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticAssetPipeline.class);
+
+    // Directories under static/ that are served with content-hashed URLs
+    public static final String[] DIRECTORIES = {"images", "script", "style"};
+
+    public static final int[] VARIANT_WIDTHS = {200, 1920};
+
+    private static final Set<String> COMPRESSIBLE = Set.of("css", "js", "svg", "json");
+
+    private static final Set<String> RESIZABLE = Set.of("png", "jpg", "jpeg");
+
+    private final Path root;
+
+    private int compressed;
+
+    private int variants;
+
+    @Autowired
+    public StaticAssetPipeline(@Value("${cgs.assets.dir}") String root) {
+        this(Paths.get(root));
+    }
+
+    StaticAssetPipeline(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Writes the compressed copies and image variants of every served directory.
+     */
+    @PostConstruct
+    public void build() throws IOException {
+        long start = System.nanoTime();
+        compressed = 0;
+        variants = 0;
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        for (String directory : DIRECTORIES) {
+            for (Resource resource : resolver.getResources("classpath:/static/" + directory + "/**")) {
+                String name = resource.getFilename();
+                if (name == null || !resource.isReadable() || StringUtils.getFilenameExtension(name) == null) {
+                    continue;
+                }
+                String extension = StringUtils.getFilenameExtension(name).toLowerCase(Locale.ROOT);
+                Path target = root.resolve(relativePath(resource));
+                if (COMPRESSIBLE.contains(extension)) {
+                    compress(resource, target);
+                } else if (RESIZABLE.contains(extension)) {
+                    resize(resource, target, extension);
+                }
+            }
+        }
+        log.info("Static assets ready in {} ms under {}: {} files compressed, {} image variants written",
+                Math.round((System.nanoTime() - start) / 1e6), root, compressed, variants);
+    }
+
+    /**
+     * @param original An image file name, e.g. {@code roadmap.png}.
+     * @param width One of {@link #VARIANT_WIDTHS}.
+     * @return The name of the image's variant of that width, e.g. {@code roadmap-1920w.png}.
+     */
+    public static String variantName(String original, int width) {
+        String extension = StringUtils.getFilenameExtension(original);
+        return StringUtils.stripFilenameExtension(original) + "-" + width + "w." + extension;
+    }
+
+    private void compress(Resource resource, Path target) throws IOException {
+        byte[] content;
+        try (InputStream in = resource.getInputStream()) {
+            content = in.readAllBytes();
+        }
+        Path gzip = target.resolveSibling(target.getFileName() + ".gz");
+        if (Files.isRegularFile(target) && Arrays.equals(content, Files.readAllBytes(target)) && Files.isRegularFile(gzip)) {
+            return;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(content);
+        }
+        // Write the gzip copy first, so the original never sits next to a stale one
+        write(gzip, buffer.toByteArray());
+        write(target, content);
+        compressed++;
+    }
+
+    private void resize(Resource resource, Path target, String extension) throws IOException {
+        long modified = resource.lastModified();
+        int sourceWidth = -1;
+        BufferedImage image = null;
+        for (int width : VARIANT_WIDTHS) {
+            Path variant = target.resolveSibling(variantName(target.getFileName().toString(), width));
+            if (Files.isRegularFile(variant) && Files.getLastModifiedTime(variant).toMillis() >= modified) {
+                continue;
+            }
+            if (sourceWidth < 0) {
+                sourceWidth = widthOf(resource);
+            }
+            // Images no wider than the variant are served as they are
+            if (sourceWidth <= width) {
+                Files.deleteIfExists(variant);
+                continue;
+            }
+            if (image == null) {
+                try (InputStream in = resource.getInputStream()) {
+                    image = ImageIO.read(in);
+                }
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            ImageIO.write(scaleToWidth(image, width, "png".equals(extension)), "png".equals(extension) ? "png" : "jpg", buffer);
+            write(variant, buffer.toByteArray());
+            variants++;
+        }
+    }
+
+    /**
+     * Scales the image down to the given width in halving steps, which keeps thin lines and text
+     * legible where a single bicubic step would skip most source pixels.
+     */
+    static BufferedImage scaleToWidth(BufferedImage image, int width, boolean alpha) {
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = currentWidth == width ? height : Math.max(height, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (currentWidth > width);
+        return current;
+    }
+
+    // Reads the width from the image header without decoding the pixels; 0 if there is no decoder
+    private static int widthOf(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream(); ImageInputStream images = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = images == null ? null : ImageIO.getImageReaders(images);
+            if (readers == null || !readers.hasNext()) {
+                log.warn("No decoder for static image {}", resource);
+                return 0;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(images, true, true);
+                return reader.getWidth(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Path of a classpath resource below static/, e.g. style/profile v2.css
+    private static String relativePath(Resource resource) throws IOException {
+        String url = resource.getURL().toString();
+        return StringUtils.uriDecode(url.substring(url.lastIndexOf("/static/") + "/static/".length()), StandardCharsets.UTF_8);
+    }
+
+    private static void write(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.cgs.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * N-gram index over a set of strings that answers "which keys contain this text" without
+ * scanning every key.
+ *
+ * Every 1-, 2- and 3-character substring of each key is indexed. Queries of up to three
+ * characters are a single lookup; longer queries only verify the keys sharing the query's
+ * rarest trigram. Safe for concurrent readers while keys are added and removed.
+ */
+public final class SubstringIndex {
+
+    private static final int GRAM = 3;
+
+    // Substring of length 1..GRAM -> keys containing it
+    private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+    public void add(String key) {
+        if (key == null || key.isEmpty() || !keys.add(key)) {
+            return;
+        }
+        for (String gram : gramsOf(key)) {
+            grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    public void remove(String key) {
+        if (key == null || !keys.remove(key)) {
+            return;
+        }
+        for (String gram : gramsOf(key)) {
+            Set<String> posting = grams.get(gram);
+            if (posting != null) {
+                posting.remove(key);
+                if (posting.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    public boolean contains(String key) {
+        return keys.contains(key);
+    }
+
+    /**
+     * Finds the indexed keys that contain the given text.
+     *
+     * @param text The text to look for. Must already be normalized like the keys.
+     * @return The keys containing the text; every key if the text is empty.
+     */
+    public Set<String> keysContaining(String text) {
+        if (text.isEmpty()) {
+            return Collections.unmodifiableSet(keys);
+        }
+        if (text.length() <= GRAM) {
+            Set<String> posting = grams.get(text);
+            return posting == null ? Set.of() : Collections.unmodifiableSet(posting);
+        }
+
+        // Verify only the keys sharing the rarest trigram of the text
+        Set<String> rarest = null;
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            Set<String> posting = grams.get(text.substring(i, i + GRAM));
+            if (posting == null) {
+                return Set.of();
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+
+        Set<String> result = new HashSet<>();
+        for (String key : rarest) {
+            if (key.contains(text)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> gramsOf(String key) {
+        Set<String> result = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= key.length(); i++) {
+                result.add(key.substring(i, i + length));
+            }
+        }
+        return result;
+    }
+}
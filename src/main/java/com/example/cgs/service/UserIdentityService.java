@@ -0,0 +1,76 @@
+package com.example.cgs.service;
+
+import com.example.cgs.repositories.ProfileRepository;
+import com.example.cgs.repositories.UserProfileRepository;
+import com.example.cgs.repositories.UsersRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Resolves a signed-in user's email to the IDs of their account, profile and skills profile.
+ *
+ * Sessions only carry the email, so every endpoint used to look the user up by email again. The
+ * IDs are resolved once and kept for a few minutes; callers then load the rows by primary key,
+ * which the second-level cache answers without a query for active users. Entries for rows that
+ * did not exist yet are dropped with {@link #evict} when the row is created.
+ */
+@Service
+public class UserIdentityService {
+
+    /**
+     * IDs of one user's rows; null where the user has no such row.
+     */
+    public record Identity(Long userId, Long profileId, Long userProfileId) {
+    }
+
+    static final Identity NONE = new Identity(null, null, null);
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    // Email -> IDs; short-lived so rows deleted elsewhere are noticed soon
+    private final Cache<String, Identity> identities = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    /**
+     * @param email The user's email, as stored in the session.
+     * @return The IDs of the user's rows; all null if the email is null or unknown.
+     */
+    public Identity resolve(String email) {
+        if (email == null) {
+            return NONE;
+        }
+        return identities.get(email, this::load);
+    }
+
+    /**
+     * Forgets the IDs resolved for an email. Called after one of the user's rows is created.
+     *
+     * @param email The user's email.
+     */
+    public void evict(String email) {
+        if (email != null) {
+            identities.invalidate(email);
+        }
+    }
+
+    private Identity load(String email) {
+        // Each lookup is a single-column read on a unique email index
+        return new Identity(
+                usersRepository.findIdByEmail(email).orElse(null),
+                profileRepository.findIdByEmail(email).orElse(null),
+                userProfileRepository.findIdByEmail(email).orElse(null));
+    }
+}
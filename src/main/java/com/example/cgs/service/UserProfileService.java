@@ -2,8 +2,10 @@ package com.example.cgs.service;
 
 import com.example.cgs.entities.*;
 import com.example.cgs.repositories.UserProfileRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,6 +15,9 @@ public class UserProfileService {
     @Autowired
     private UserProfileRepository userProfileRepository;
 
+    @Autowired
+    private UserIdentityService userIdentityService;
+
     public UserProfile saveUserProfile(UserProfile userProfile) {
         return userProfileRepository.save(userProfile);
     }
@@ -21,7 +26,24 @@ public class UserProfileService {
         return userProfileRepository.findAll();
     }
 
+    /**
+     * Loads the user's profile by ID, with its skills. Both come from the second-level cache
+     * once the profile has been read, so repeated calls run no queries.
+     *
+     * @param email The user's email.
+     * @return The profile with its skills loaded, or null if the user has none.
+     */
+    @Transactional(readOnly = true)
     public UserProfile getUserProfileByEmail(String email) {
-        return userProfileRepository.findByEmail(email);
+        Long id = userIdentityService.resolve(email).userProfileId();
+        if (id == null) {
+            return null;
+        }
+        UserProfile profile = userProfileRepository.findById(id).orElse(null);
+        if (profile != null) {
+            // Callers read the skills, some of them outside this transaction
+            Hibernate.initialize(profile.getSkills());
+        }
+        return profile;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package com.example.cgs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Starts the whole application against an in-memory database, so a bean that cannot be
+ * created fails the build without a MySQL server.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:context;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"cgs.assets.dir=target/test-assets"
+})
+class EmbeddedDatabaseContextTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.example.cgs.config;
+
+import com.example.cgs.controller.DiagnosticsController;
+import com.example.cgs.controller.UserController;
+import com.example.cgs.entities.Users;
+import com.example.cgs.repositories.CoursesRepository;
+import com.example.cgs.repositories.JobPostingRepository;
+import com.example.cgs.repositories.PlaylistRepository;
+import com.example.cgs.repositories.ProfileRepository;
+import com.example.cgs.repositories.UsersRepository;
+import com.example.cgs.service.AvatarService;
+import com.example.cgs.service.CourseSkillIndex;
+import com.example.cgs.service.PasswordService;
+import com.example.cgs.service.ProfileService;
+import com.example.cgs.service.UserIdentityService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = {DiagnosticsController.class, UserController.class}, properties = {
+        "cgs.session.mode=token",
+        "cgs.session.token-secret=test-secret-that-is-at-least-32-bytes-long"
+})
+@Import(SessionTokenCodec.class)
+public class TokenSessionFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenCodec codec;
+
+    @MockBean
+    private UsersRepository usersRepository;
+
+    @MockBean
+    private ProfileRepository profileRepository;
+
+    @MockBean
+    private ProfileService profileService;
+
+    @MockBean
+    private UserIdentityService userIdentityService;
+
+    @MockBean
+    private CoursesRepository coursesRepository;
+
+    @MockBean
+    private PlaylistRepository playlistRepository;
+
+    @MockBean
+    private JobPostingRepository jobPostingRepository;
+
+    @MockBean
+    private CourseSkillIndex courseSkillIndex;
+
+    @MockBean
+    private PasswordService passwordService;
+
+    @MockBean
+    private AvatarService avatarService;
+
+    private Cookie sessionCookie(String token) {
+        return new Cookie(TokenSessionFilter.COOKIE_NAME, token);
+    }
+
+    @Test
+    public void testAttributesRoundTripThroughTheCookie() throws Exception {
+        String token = codec.encode(Map.of("userType", "admin"), System.currentTimeMillis());
+
+        MvcResult result = mockMvc.perform(put("/api/diagnostics/session").param("enabled", "true").cookie(sessionCookie(token)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // No container session was created; the change went out in a new token
+        assertNull(result.getRequest().getSession(false));
+        Cookie issued = result.getResponse().getCookie(TokenSessionFilter.COOKIE_NAME);
+        assertNotNull(issued);
+        assertTrue(issued.isHttpOnly());
+        SessionTokenCodec.Token decoded = codec.decode(issued.getValue(), System.currentTimeMillis());
+        assertEquals(Map.of("userType", "admin", "diagnostics", true), decoded.attributes());
+    }
+
+    @Test
+    public void testForgedTokenIsIgnored() throws Exception {
+        String token = codec.encode(Map.of("userType", "student"), System.currentTimeMillis());
+        String signature = token.substring(token.indexOf('.'));
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.')))).replace("student", "admin").getBytes());
+
+        mockMvc.perform(put("/api/diagnostics/session").param("enabled", "true").cookie(sessionCookie(forged + signature)))
+                .andExpect(status().isForbidden())
+                .andExpect(cookie().doesNotExist(TokenSessionFilter.COOKIE_NAME));
+    }
+
+    @Test
+    public void testExpiredTokenIsIgnored() throws Exception {
+        long issuedAt = System.currentTimeMillis() - codec.getTtl().toMillis() - 1;
+        String token = codec.encode(Map.of("userType", "admin"), issuedAt);
+
+        mockMvc.perform(put("/api/diagnostics/session").param("enabled", "true").cookie(sessionCookie(token)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testAsyncLoginIssuesTheSessionCookie() throws Exception {
+        Users user = new Users();
+        user.setName("Ada");
+        user.setEmail("ada@example.com");
+        user.setPassword("hash");
+        when(usersRepository.findByEmail("ada@example.com")).thenReturn(user);
+        when(passwordService.verify("secret", "hash"))
+                .thenReturn(CompletableFuture.completedFuture(PasswordService.Verification.MATCH));
+
+        MvcResult started = mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"ada@example.com\",\"password\":\"secret\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The attributes are set while the request is async; the cookie goes out on the dispatch
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        Cookie issued = result.getResponse().getCookie(TokenSessionFilter.COOKIE_NAME);
+        assertNotNull(issued);
+        SessionTokenCodec.Token decoded = codec.decode(issued.getValue(), System.currentTimeMillis());
+        assertEquals(Map.of("name", "Ada", "userEmail", "ada@example.com", "userType", "student"), decoded.attributes());
+    }
+}
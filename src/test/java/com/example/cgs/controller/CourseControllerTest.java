@@ -2,20 +2,38 @@ package com.example.cgs.controller;
 
 import com.example.cgs.entities.Courses;
 import com.example.cgs.repositories.CoursesRepository;
+import com.example.cgs.service.CatalogJsonCache;
+import com.example.cgs.service.CatalogVersion;
+import com.example.cgs.service.CourseSkillIndex;
+import com.example.cgs.service.NdjsonStreamer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import java.util.Arrays;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CourseController.class)
+@Import({CatalogJsonCache.class, CatalogVersion.class})
 public class CourseControllerTest {
 
     @Autowired
@@ -24,6 +42,28 @@ public class CourseControllerTest {
     @MockBean
     private CoursesRepository coursesRepository;
 
+    @MockBean
+    private CourseSkillIndex courseSkillIndex;
+
+    @MockBean
+    private NdjsonStreamer ndjsonStreamer;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @BeforeEach
+    public void setUp() {
+        // The cached bodies outlive a test; start each one from a new catalog version
+        catalogVersion.changed();
+    }
+
+    private void givenCourses() {
+        Courses course = new Courses();
+        course.setId(1L);
+        course.setCourseTitle("Java Basics");
+        when(coursesRepository.findAll()).thenReturn(Arrays.asList(course));
+    }
+
     @Test
     public void testGetAllCourses() throws Exception {
         Courses course1 = new Courses();
@@ -42,6 +82,36 @@ public class CourseControllerTest {
                 .andExpect(jsonPath("$[0].courseTitle").value("Java Basics"));
     }
 
+    @Test
+    public void testGetCoursesPage() throws Exception {
+        Courses course1 = new Courses();
+        course1.setId(11L);
+        course1.setCourseTitle("Java Basics");
+
+        Courses course2 = new Courses();
+        course2.setId(12L);
+        course2.setCourseTitle("Spring Boot");
+
+        when(coursesRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                .thenReturn(Arrays.asList(course1, course2));
+
+        mockMvc.perform(get("/api/courses").param("limit", "2").param("after", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+    }
+
+    @Test
+    public void testNdjsonWinsOverLimit() throws Exception {
+        when(ndjsonStreamer.stream(any())).thenReturn(ResponseEntity.ok().build());
+
+        // Both mappings' parameters present; the explicit format decides
+        mockMvc.perform(get("/api/courses").param("limit", "50").param("format", "ndjson"))
+                .andExpect(status().isOk());
+
+        verify(ndjsonStreamer).stream(any());
+    }
+
     @Test
     public void testGetCourseById_Found() throws Exception {
         Courses course = new Courses();
@@ -62,4 +132,42 @@ public class CourseControllerTest {
         mockMvc.perform(get("/api/courses/1"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAllCoursesAreSerializedOncePerCatalogVersion() throws Exception {
+        givenCourses();
+
+        MvcResult first = mockMvc.perform(get("/api/courses"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/courses"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(first.getResponse().getContentAsByteArray()));
+        mockMvc.perform(get("/api/courses").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(coursesRepository, times(1)).findAll();
+
+        catalogVersion.changed();
+
+        mockMvc.perform(get("/api/courses").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        verify(coursesRepository, times(2)).findAll();
+    }
+
+    @Test
+    public void testAllCoursesAreGzippedWhenAccepted() throws Exception {
+        givenCourses();
+
+        byte[] body = mockMvc.perform(get("/api/courses").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("\"courseTitle\":\"Java Basics\""));
+        }
+    }
+}
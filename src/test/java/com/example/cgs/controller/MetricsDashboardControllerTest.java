@@ -0,0 +1,51 @@
+package com.example.cgs.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(MetricsDashboardController.class)
+@Import(SimpleMeterRegistry.class)
+public class MetricsDashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testDashboardIsAdminOnly() throws Exception {
+        mockMvc.perform(get("/admin/metrics"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/login"));
+    }
+
+    @Test
+    public void testDashboardListsEndpointsAndApplicationMeters() throws Exception {
+        Timer.builder("http.server.requests").tags("method", "GET", "uri", "/api/recommendations", "status", "200")
+                .register(meterRegistry).record(Duration.ofMillis(40));
+        DistributionSummary.builder("cgs.recommendation.results").register(meterRegistry).record(12);
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("userType", "admin");
+
+        mockMvc.perform(get("/admin/metrics").session(session))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("GET /api/recommendations (200)")))
+                .andExpect(content().string(containsString("cgs.recommendation.results")))
+                .andExpect(content().string(containsString("40.00")));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.cgs.controller;
+
+import com.example.cgs.service.AvatarService;
+import com.example.cgs.service.ImageStore;
+import com.example.cgs.service.ProfileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ProfileController.class)
+public class ProfileControllerTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 1, 2, 3, 4};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProfileService profileService;
+
+    @MockBean
+    private AvatarService avatarService;
+
+    @MockBean
+    private ImageStore imageStore;
+
+    @TempDir
+    Path uploads;
+
+    private MockHttpSession session;
+
+    private AvatarService.Avatar avatar;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // Saved with a misleading extension; the content decides the type
+        Path file = Files.write(uploads.resolve("me.jpg"), PNG);
+        avatar = AvatarService.avatarOf(file);
+        when(avatarService.findByEmail("user@example.com")).thenReturn(Optional.of(avatar));
+
+        session = new MockHttpSession();
+        session.setAttribute("userEmail", "user@example.com");
+    }
+
+    @Test
+    public void testProfilePictureIsStreamedWithValidators() throws Exception {
+        mockMvc.perform(get("/api/profile/profile-pic").session(session))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(PNG))
+                .andExpect(header().string("ETag", avatar.getEtag()))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+
+        verifyNoInteractions(profileService);
+    }
+
+    @Test
+    public void testMatchingEtagIsNotModified() throws Exception {
+        mockMvc.perform(get("/api/profile/profile-pic").session(session).header("If-None-Match", avatar.getEtag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void testRangeRequestReturnsPartialContent() throws Exception {
+        mockMvc.perform(get("/api/profile/profile-pic").session(session).header("Range", "bytes=0-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-3/" + PNG.length))
+                .andExpect(content().bytes(new byte[]{(byte) 0x89, 'P', 'N', 'G'}));
+    }
+
+    @Test
+    public void testHashedUrlIsImmutable() throws Exception {
+        mockMvc.perform(get("/api/profile/profile-pic/" + avatar.getHash()).session(session))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, private, immutable"));
+
+        mockMvc.perform(get("/api/profile/profile-pic/0123").session(session))
+                .andExpect(status().isNotFound());
+    }
+}
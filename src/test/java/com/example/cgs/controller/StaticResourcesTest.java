@@ -0,0 +1,65 @@
+package com.example.cgs.controller;
+
+import com.example.cgs.service.StaticAssetPipeline;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = RoadmapController.class, properties = "cgs.assets.dir=target/test-assets")
+public class StaticResourcesTest {
+
+    private static final Pattern STYLESHEET = Pattern.compile("/style/style-[0-9a-f]{32}\\.css");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    public static void buildAssets() throws Exception {
+        new StaticAssetPipeline("target/test-assets").build();
+    }
+
+    private String page() throws Exception {
+        return mockMvc.perform(get("/roadmap")).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    public void testTemplatesLinkContentHashedUrls() throws Exception {
+        String html = page();
+
+        assertTrue(STYLESHEET.matcher(html).find());
+        assertTrue(Pattern.compile("/images/medical-roadmap-1920w-[0-9a-f]{32}\\.png 1920w").matcher(html).find());
+    }
+
+    @Test
+    public void testHashedUrlIsImmutableAndPrecompressed() throws Exception {
+        Matcher stylesheet = STYLESHEET.matcher(page());
+        assertTrue(stylesheet.find());
+
+        mockMvc.perform(get(stylesheet.group()).header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    public void testPlainUrlIsRevalidated() throws Exception {
+        MvcResult first = mockMvc.perform(get("/style/style.css"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, public"))
+                .andReturn();
+
+        mockMvc.perform(get("/style/style.css").header("If-Modified-Since", first.getResponse().getHeader("Last-Modified")))
+                .andExpect(status().isNotModified());
+    }
+}
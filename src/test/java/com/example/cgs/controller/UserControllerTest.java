@@ -0,0 +1,94 @@
+package com.example.cgs.controller;
+
+import com.example.cgs.repositories.CoursesRepository;
+import com.example.cgs.repositories.JobPostingRepository;
+import com.example.cgs.repositories.PlaylistRepository;
+import com.example.cgs.repositories.ProfileRepository;
+import com.example.cgs.repositories.UsersRepository;
+import com.example.cgs.service.AvatarService;
+import com.example.cgs.service.CourseSkillIndex;
+import com.example.cgs.service.PasswordService;
+import com.example.cgs.service.ProfileService;
+import com.example.cgs.service.UserIdentityService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserController.class)
+public class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UsersRepository usersRepository;
+
+    @MockBean
+    private ProfileRepository profileRepository;
+
+    @MockBean
+    private ProfileService profileService;
+
+    @MockBean
+    private UserIdentityService userIdentityService;
+
+    @MockBean
+    private CoursesRepository coursesRepository;
+
+    @MockBean
+    private PlaylistRepository playlistRepository;
+
+    @MockBean
+    private JobPostingRepository jobPostingRepository;
+
+    @MockBean
+    private CourseSkillIndex courseSkillIndex;
+
+    @MockBean
+    private PasswordService passwordService;
+
+    @MockBean
+    private AvatarService avatarService;
+
+    @TempDir
+    Path uploads;
+
+    @Test
+    public void testPagesLinkTheAvatarByItsContentHash() throws Exception {
+        Path file = Files.write(uploads.resolve("me.png"), new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A});
+        AvatarService.Avatar avatar = AvatarService.avatarOf(file);
+        when(avatarService.findByEmail("user@example.com")).thenReturn(Optional.of(avatar));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("userEmail", "user@example.com");
+
+        mockMvc.perform(get("/dashboard").session(session))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("src=\"/api/profile/profile-pic/" + avatar.getHash() + "\"")))
+                .andExpect(content().string(not(containsString("src=\"/api/profile/profile-pic\""))));
+    }
+
+    @Test
+    public void testUsersWithoutPictureGetThePlainUrl() throws Exception {
+        when(avatarService.findByEmail("user@example.com")).thenReturn(Optional.empty());
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("userEmail", "user@example.com");
+
+        mockMvc.perform(get("/dashboard").session(session))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("src=\"/api/profile/profile-pic\"")));
+    }
+}
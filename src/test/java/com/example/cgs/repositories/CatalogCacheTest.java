@@ -0,0 +1,140 @@
+package com.example.cgs.repositories;
+
+import com.example.cgs.controller.CacheStatsController;
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.JobPosting;
+import com.example.cgs.entities.Playlist;
+import com.example.cgs.entities.Skill;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each read runs in its own committed transaction, as it would across page loads
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CoursesRepository coursesRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private JobPostingRepository jobPostingRepository;
+
+    private TransactionTemplate transaction;
+
+    private Statistics statistics;
+
+    private Long courseId;
+
+    private Long jobId;
+
+    @BeforeEach
+    public void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        transaction = new TransactionTemplate(transactionManager);
+
+        Skill skill = new Skill();
+        skill.setSkill("Java");
+        Courses course = new Courses();
+        course.setCourseTitle("Java Basics");
+        course.setSkills(new ArrayList<>(List.of(skill)));
+        courseId = transaction.execute(status -> coursesRepository.save(course).getId());
+
+        Playlist playlist = new Playlist();
+        playlist.setCourseid(courseId);
+        playlist.setTitle("Intro");
+        transaction.executeWithoutResult(status -> playlistRepository.save(playlist));
+
+        JobPosting job = new JobPosting();
+        job.setJobTitle("Backend Developer");
+        job.setRequiredSkills("Java");
+        jobId = transaction.execute(status -> jobPostingRepository.save(job).getId());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            playlistRepository.deleteAll();
+            coursesRepository.deleteAll();
+            jobPostingRepository.deleteAll();
+        });
+    }
+
+    private void readCatalog() {
+        transaction.executeWithoutResult(status -> {
+            Courses course = coursesRepository.findById(courseId).orElseThrow();
+            assertEquals("Java", course.getSkills().get(0).getSkill());
+            assertEquals(1, playlistRepository.findAllByCourseid(courseId).size());
+            assertEquals("Backend Developer", jobPostingRepository.findById(jobId).orElseThrow().getJobTitle());
+        });
+    }
+
+    @Test
+    public void testWarmReadsDoNotHitTheDatabase() {
+        readCatalog();
+        statistics.clear();
+
+        readCatalog();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void testPlaylistWriteInvalidatesCachedQuery() {
+        readCatalog();
+
+        Playlist playlist = new Playlist();
+        playlist.setCourseid(courseId);
+        playlist.setTitle("Next steps");
+        transaction.executeWithoutResult(status -> playlistRepository.save(playlist));
+
+        List<Playlist> playlists = transaction.execute(status -> playlistRepository.findAllByCourseid(courseId));
+        assertEquals(2, playlists.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStatsEndpointReportsRegions() throws Exception {
+        readCatalog();
+        readCatalog();
+
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("userType", "admin");
+        ResponseEntity<?> response = new CacheStatsController().getCacheStats(session);
+
+        Map<String, Map<String, Object>> regions = (Map<String, Map<String, Object>>) response.getBody();
+        assertNotNull(regions);
+        assertTrue((Long) regions.get("courses").get("hits") > 0);
+        assertTrue(regions.get("default-query-results-region").containsKey("evictions"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.cgs.repositories;
+
+import com.example.cgs.config.CatalogEventsConfig;
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.Skill;
+import com.example.cgs.entities.UserProfile;
+import com.example.cgs.service.CatalogVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Writes run in their own committed transactions, as they would from the controllers
+@DataJpaTest
+@Import({CatalogVersion.class, CatalogEventsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogVersionTest {
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CoursesRepository coursesRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            coursesRepository.deleteAll();
+            userProfileRepository.deleteAll();
+        });
+    }
+
+    private static List<Skill> skills(String... names) {
+        List<Skill> skills = new ArrayList<>();
+        for (String name : names) {
+            Skill skill = new Skill();
+            skill.setSkill(name);
+            skills.add(skill);
+        }
+        return skills;
+    }
+
+    @Test
+    public void testCourseWritesBumpTheVersion() {
+        long before = catalogVersion.current();
+        Courses course = new Courses();
+        course.setCourseTitle("Java Basics");
+        course.setSkills(skills("Java"));
+        Long id = transaction.execute(status -> coursesRepository.save(course).getId());
+
+        long saved = catalogVersion.current();
+        // Once at the insert and once after the commit
+        assertTrue(saved >= before + 2);
+
+        // Changing only the skills still counts as a course write
+        transaction.executeWithoutResult(status -> {
+            Courses existing = coursesRepository.findById(id).orElseThrow();
+            existing.getSkills().clear();
+            existing.getSkills().addAll(skills("SQL"));
+        });
+        assertTrue(catalogVersion.current() > saved);
+    }
+
+    @Test
+    public void testProfileWritesLeaveTheVersion() {
+        long before = catalogVersion.current();
+        UserProfile profile = new UserProfile();
+        profile.setEmail("user@example.com");
+        profile.setSkills(skills("Java"));
+        transaction.executeWithoutResult(status -> userProfileRepository.save(profile));
+
+        assertEquals(before, catalogVersion.current());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.cgs.repositories;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.Skill;
+import com.example.cgs.entities.UserProfile;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CoursesRepositoryTest {
+
+    private static final int COURSE_COUNT = 1000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CoursesRepository coursesRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < COURSE_COUNT; i++) {
+            Courses course = new Courses();
+            course.setCourseTitle("Course " + i);
+            course.setSkills(skills("Java", "SQL", "Skill " + i));
+            entityManager.persist(course);
+        }
+
+        UserProfile profile = new UserProfile();
+        profile.setEmail("user@example.com");
+        profile.setSkills(skills("Java", "Docker"));
+        entityManager.persist(profile);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private List<Skill> skills(String... names) {
+        List<Skill> skills = new ArrayList<>();
+        for (String name : names) {
+            Skill skill = new Skill();
+            skill.setSkill(name);
+            skills.add(skill);
+        }
+        return skills;
+    }
+
+    private int countSkills(List<Courses> courses) {
+        int count = 0;
+        for (Courses course : courses) {
+            count += course.getSkills().size();
+        }
+        return count;
+    }
+
+    @Test
+    public void testFindAllLoadsSkillsInOneQuery() {
+        List<Courses> courses = coursesRepository.findAll();
+
+        assertEquals(COURSE_COUNT, courses.size());
+        assertEquals(COURSE_COUNT * 3, countSkills(courses));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testPageLoadsSkillsInBatches() {
+        List<Courses> courses = coursesRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(500));
+
+        assertEquals(500, courses.size());
+        assertEquals(500 * 3, countSkills(courses));
+        // One query for the page, then one per batch of 100 skill collections
+        assertEquals(1 + 5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testFindByEmailLoadsSkillsInOneQuery() {
+        UserProfile profile = userProfileRepository.findByEmail("user@example.com");
+
+        assertEquals(2, profile.getSkills().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.cgs.repositories;
+
+import com.example.cgs.entities.JobPosting;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class JobPostingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JobPostingRepository jobPostingRepository;
+
+    private JobPosting posting(String title, String requiredSkills) {
+        JobPosting posting = new JobPosting();
+        posting.setJobTitle(title);
+        posting.setRequiredSkills(requiredSkills);
+        return entityManager.persist(posting);
+    }
+
+    @Test
+    public void testMatchingPostingsAreRankedByOverlap() {
+        JobPosting javaOnly = posting("Backend", "Java, Docker");
+        JobPosting both = posting("Full Stack", " java ,SQL, React");
+        posting("Designer", "Figma");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<JobPosting> result = jobPostingRepository.findMatchingSkillsRankedByOverlap(Set.of("java", "sql"));
+
+        assertEquals(List.of(both.getId(), javaOnly.getId()), result.stream().map(JobPosting::getId).toList());
+    }
+
+    @Test
+    public void testPostingsWithoutSkillRowsAreFoundForBackfill() {
+        JobPosting posting = posting("Backend", "Java");
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("delete from job_posting_skill")
+                .executeUpdate();
+        entityManager.clear();
+
+        List<JobPosting> missing = jobPostingRepository.findMissingSkillTokens(0L, PageRequest.of(0, 10));
+
+        assertEquals(1, missing.size());
+        assertEquals(posting.getId(), missing.get(0).getId());
+    }
+}
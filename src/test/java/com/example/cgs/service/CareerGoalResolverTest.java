@@ -0,0 +1,65 @@
+package com.example.cgs.service;
+
+import com.example.cgs.service.JobSkillsCatalog.JobMapping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CareerGoalResolverTest {
+
+    private CareerGoalResolver resolver;
+
+    @BeforeEach
+    public void setUp() {
+        List<JobMapping> jobs = List.of(
+                new JobMapping("Full Stack Developer", List.of("HTML")),
+                new JobMapping("Data Scientist", List.of("Python")),
+                new JobMapping("Developer", List.of("Git")),
+                new JobMapping("DevOps Engineer", List.of("Docker")));
+
+        JobSkillsCatalog catalog = mock(JobSkillsCatalog.class);
+        when(catalog.snapshot()).thenReturn(new JobSkillsCatalog.Snapshot(jobs, new byte[0]));
+
+        resolver = new CareerGoalResolver();
+        ReflectionTestUtils.setField(resolver, "jobSkillsCatalog", catalog);
+    }
+
+    private String resolve(String goal) {
+        return resolver.resolve(goal).map(JobMapping::getJobTitle).orElse(null);
+    }
+
+    @Test
+    public void testExactMatchIgnoresCaseAndSpacing() {
+        assertEquals("Data Scientist", resolve("  data\tSCIENTIST "));
+        assertEquals("DevOps Engineer", resolve("devopsengineer"));
+    }
+
+    @Test
+    public void testExactMatchWinsOverEarlierPartialMatch() {
+        // "Full Stack Developer" contains "developer" but the exact title comes first
+        assertEquals("Developer", resolve("Developer"));
+    }
+
+    @Test
+    public void testPartialMatchPicksEarliestJob() {
+        assertEquals("Full Stack Developer", resolve("stack dev"));
+        assertEquals("Full Stack Developer", resolve("senior full stack developer at a startup"));
+        assertEquals("Developer", resolve("game developer"));
+        assertNull(resolve("astronaut"));
+    }
+
+    @Test
+    public void testRepeatedGoalsHitTheCache() {
+        resolve("Data Scientist");
+        resolve("data scientist");
+
+        assertEquals(1, resolver.getCacheMisses());
+        assertEquals(1, resolver.getCacheHits());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.Skill;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourseSkillIndexTest {
+
+    private static Courses course(long id, String... skills) {
+        Courses course = new Courses();
+        course.setId(id);
+        course.setCourseTitle("Course " + id);
+        List<Skill> list = new ArrayList<>();
+        for (String name : skills) {
+            Skill skill = new Skill();
+            skill.setSkill(name);
+            list.add(skill);
+        }
+        course.setSkills(list);
+        return course;
+    }
+
+    @Test
+    public void testRecommendRanksByMatchedSkills() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        index.put(course(1L, "Java"));
+        index.put(course(2L, "Java", " SQL "));
+        index.put(course(3L, "Python"));
+
+        List<Courses> result = index.recommend(Set.of("java", "sql"));
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+    }
+
+    @Test
+    public void testUpdateAndRemoveKeepPostingsInSync() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        index.put(course(1L, "Java"));
+        index.put(course(1L, "Go"));
+
+        assertEquals(Set.of("go"), index.allSkills());
+        assertTrue(index.recommend(Set.of("java")).isEmpty());
+
+        index.remove(1L);
+        assertTrue(index.isEmpty());
+        assertTrue(index.allSkills().isEmpty());
+    }
+
+    @Test
+    public void testSearchRanksByMatchQuality() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        index.put(course(1L, "JavaScript"));
+        index.put(course(2L, "Java"));
+        index.put(course(3L, "Core Java"));
+        index.put(course(4L, "Python"));
+        index.put(course(5L, "Java EE", "Core Java"));
+
+        List<Courses> result = index.search(" JAVA");
+
+        assertEquals(List.of(2L, 5L, 1L, 3L), result.stream().map(Courses::getId).toList());
+    }
+
+    @Test
+    public void testSearchFindsSkillsContainedInQuery() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        index.put(course(1L, "SQL"));
+        index.put(course(2L, "Go"));
+
+        assertEquals(List.of(1L), index.search("advanced sql").stream().map(Courses::getId).toList());
+    }
+
+    @Test
+    public void testLongQueryStillFindsSkillsContainedInIt() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        index.put(course(1L, "SQL"));
+        index.put(course(2L, "Go"));
+
+        String query = "looking for a course on advanced sql for reporting and analytics in large companies";
+        assertTrue(query.length() > 64);
+        assertEquals(List.of(1L), index.search(query).stream().map(Courses::getId).toList());
+    }
+
+    @Test
+    public void testSearchFollowsCourseWrites() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        index.put(course(1L, "Kubernetes"));
+        assertEquals(1, index.search("kube").size());
+
+        index.put(course(1L, "Docker"));
+        assertTrue(index.search("kube").isEmpty());
+        assertEquals(1, index.search("dock").size());
+
+        index.remove(1L);
+        assertTrue(index.search("dock").isEmpty());
+    }
+
+    @Test
+    public void testMissingSkills() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        index.put(course(1L, "Java", "SQL"));
+
+        assertEquals(Set.of("sql"), index.missingSkills(Set.of("java")));
+    }
+
+    @Test
+    public void testRecommendMissingMatchesRecommendOfMissingSkills() {
+        // Enough distinct skills to span several bitset words
+        CourseSkillIndex index = new CourseSkillIndex();
+        Random random = new Random(7);
+        for (long id = 1; id <= 300; id++) {
+            String[] skills = new String[1 + random.nextInt(5)];
+            for (int i = 0; i < skills.length; i++) {
+                skills[i] = "Skill " + random.nextInt(200);
+            }
+            index.put(course(id, skills));
+        }
+        index.remove(17L);
+        index.put(course(42L, "Skill 199", "Brand New"));
+
+        Set<String> userSkills = Set.of("skill 1", "skill 64", "skill 128", "brand new", "not taught");
+        List<Courses> expected = index.recommend(index.missingSkills(userSkills));
+
+        assertEquals(ids(expected), ids(index.recommendMissing(userSkills)));
+        assertFalse(ids(expected).contains(17L));
+    }
+
+    @Test
+    public void testRecommendMissingIsEmptyWhenUserHasEverySkill() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        index.put(course(1L, "Java", "SQL"));
+        index.put(course(2L, "Go"));
+        index.remove(2L);
+
+        assertTrue(index.recommendMissing(Set.of("java", "sql")).isEmpty());
+        assertEquals(List.of(1L), ids(index.recommendMissing(Set.of("java"))));
+    }
+
+    @Test
+    public void testTopCoursesMatchPrefixOfFullRanking() {
+        CourseSkillIndex index = new CourseSkillIndex();
+        Random random = new Random(11);
+        for (long id = 1; id <= 500; id++) {
+            String[] skills = new String[1 + random.nextInt(4)];
+            for (int i = 0; i < skills.length; i++) {
+                skills[i] = "Skill " + random.nextInt(20);
+            }
+            index.put(course(id, skills));
+        }
+        Set<String> wanted = Set.of("skill 1", "skill 2", "skill 3", "skill 4");
+        List<Long> full = ids(index.recommend(wanted));
+
+        for (int limit : new int[]{0, 1, 10, 37, full.size(), full.size() + 5}) {
+            CourseSkillIndex.TopCourses top = index.recommend(wanted, limit);
+            assertEquals(full.subList(0, Math.min(limit, full.size())), ids(top.courses()));
+            assertEquals(full.size(), top.total());
+        }
+    }
+
+    private static List<Long> ids(List<Courses> courses) {
+        return courses.stream().map(Courses::getId).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.cgs.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageStoreTest {
+
+    @TempDir
+    Path uploads;
+
+    private ImageStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new ImageStore(uploads);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    private static MockMultipartFile png(String filename, int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new MockMultipartFile("profilePic", filename, "image/png", out.toByteArray());
+    }
+
+    private long countFiles(Path directory) throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    public void testUploadsAreStoredByContentAndDeduplicated() throws Exception {
+        ImageStore.StoredImage first = store.store(png("me.png", 40, 30));
+        ImageStore.StoredImage second = store.store(png("other-name.png", 40, 30));
+        ImageStore.StoredImage different = store.store(png("me.png", 50, 30));
+
+        assertEquals(first.path(), second.path());
+        assertNotEquals(first.path(), different.path());
+        assertTrue(first.path().getFileName().toString().startsWith(first.hash()));
+        assertEquals(2, countFiles(uploads.resolve("originals")));
+        assertEquals(first.hash(), store.hashOf(first.path()).orElseThrow());
+    }
+
+    @Test
+    public void testThumbnailsAreGeneratedInTheBackground() throws Exception {
+        ImageStore.StoredImage image = store.store(png("me.png", 1200, 800));
+        image.thumbnails().get(10, TimeUnit.SECONDS);
+
+        Path thumbnail = store.thumbnail(image.hash(), image.path(), 256).orElseThrow();
+        BufferedImage decoded = ImageIO.read(thumbnail.toFile());
+        assertEquals(256, decoded.getWidth());
+        assertEquals(256, decoded.getHeight());
+        assertTrue(Files.size(thumbnail) < Files.size(image.path()) || Files.size(image.path()) < 10_000);
+        assertTrue(store.thumbnail(image.hash(), image.path(), 64).isPresent());
+    }
+
+    @Test
+    public void testPendingThumbnailsAreNotGeneratedOnTheRequestThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ImageStore queued = new ImageStore(uploads, executor);
+        try {
+            ImageStore.StoredImage image = queued.store(png("me.png", 1200, 800));
+
+            // The worker is busy, so the request gets nothing rather than resizing the image itself
+            assertTrue(queued.thumbnail(image.hash(), image.path(), 256).isEmpty());
+            assertTrue(queued.thumbnailsReadyOrPending(image.hash()));
+            assertFalse(Files.exists(uploads.resolve("thumbs")));
+
+            busy.countDown();
+            image.thumbnails().get(10, TimeUnit.SECONDS);
+            assertTrue(queued.thumbnail(image.hash(), image.path(), 256).isPresent());
+        } finally {
+            queued.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectedThumbnailsAreGeneratedOnFirstRequest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        ImageStore full = new ImageStore(uploads, executor);
+
+        ImageStore.StoredImage image = full.store(png("me.png", 1200, 800));
+
+        assertTrue(image.thumbnails().isDone());
+        assertFalse(full.thumbnailsReadyOrPending(image.hash()));
+        assertTrue(full.thumbnail(image.hash(), image.path(), 256).isPresent());
+        assertTrue(full.thumbnailsReadyOrPending(image.hash()));
+    }
+
+    @Test
+    public void testNonImagesAreRejected() {
+        MockMultipartFile script = new MockMultipartFile("profilePic", "me.jpg", "image/jpeg", "<svg onload=alert(1)>".getBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> store.store(script));
+    }
+
+    @Test
+    public void testPathsOutsideTheStoreHaveNoHash() {
+        assertTrue(store.hashOf(uploads.resolve("legacy.jpg")).isEmpty());
+    }
+}
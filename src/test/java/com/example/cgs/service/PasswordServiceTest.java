@@ -0,0 +1,72 @@
+package com.example.cgs.service;
+
+import com.example.cgs.service.PasswordService.Verification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordServiceTest {
+
+    // Lowest BCrypt cost, to keep the tests fast
+    private final PasswordService service = new PasswordService(4, 2, 10);
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testHashedPasswordVerifies() {
+        String hash = service.hash("s3cret").join();
+
+        assertTrue(PasswordService.isHash(hash));
+        assertNotEquals("s3cret", hash);
+        assertEquals(Verification.MATCH, service.verify("s3cret", hash).join());
+        assertEquals(Verification.NO_MATCH, service.verify("wrong", hash).join());
+    }
+
+    @Test
+    public void testLegacyPlaintextNeedsRehash() {
+        assertFalse(PasswordService.isHash("s3cret"));
+        assertEquals(Verification.MATCH_NEEDS_REHASH, service.verify("s3cret", "s3cret").join());
+        assertEquals(Verification.NO_MATCH, service.verify("wrong", "s3cret").join());
+        assertEquals(Verification.NO_MATCH, service.verify("s3cret", null).join());
+    }
+
+    @Test
+    public void testWeakerHashNeedsRehash() {
+        PasswordService stronger = new PasswordService(5, 1, 10);
+        try {
+            String weak = service.hash("s3cret").join();
+            assertEquals(Verification.MATCH_NEEDS_REHASH, stronger.verify("s3cret", weak).join());
+        } finally {
+            stronger.shutdown();
+        }
+    }
+
+    @Test
+    public void testFullQueueRejectsInsteadOfWaiting() {
+        PasswordService busy = new PasswordService(12, 1, 1);
+        try {
+            CompletableFuture<String> running = busy.hash("a");
+            CompletableFuture<String> queued = busy.hash("b");
+            CompletableFuture<String> rejected = busy.hash("c");
+
+            ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+            assertEquals(1L, busy.metrics().get("rejected"));
+
+            running.join();
+            queued.join();
+            assertEquals(2L, ((Map<?, ?>) busy.metrics().get("hashing")).get("count"));
+        } finally {
+            busy.shutdown();
+        }
+    }
+}
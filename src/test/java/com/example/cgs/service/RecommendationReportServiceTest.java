@@ -0,0 +1,161 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.RecommendationRun;
+import com.example.cgs.entities.Skill;
+import com.example.cgs.entities.UserProfile;
+import com.example.cgs.repositories.CoursesRepository;
+import com.example.cgs.repositories.UserProfileRepository;
+import com.example.cgs.repositories.UserRecommendationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+// The job commits its own transactions, so the test must not wrap it in one
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(RecommendationReportService.class)
+public class RecommendationReportServiceTest {
+
+    private static final int USERS = 1_200;
+
+    @Autowired
+    private RecommendationReportService recommendationReportService;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private CoursesRepository coursesRepository;
+
+    @Autowired
+    private UserRecommendationRepository userRecommendationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private RecommendationService recommendationService;
+
+    private List<Courses> courses;
+
+    @BeforeEach
+    public void setUp() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        courses = transaction.execute(status -> {
+            List<Courses> saved = new ArrayList<>();
+            for (String title : List.of("SQL", "Docker", "Go")) {
+                Courses course = new Courses();
+                course.setCourseTitle(title);
+                saved.add(coursesRepository.save(course));
+            }
+            return saved;
+        });
+        transaction.executeWithoutResult(status -> {
+            List<UserProfile> profiles = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                Skill skill = new Skill();
+                skill.setSkill("Java");
+                UserProfile profile = new UserProfile();
+                profile.setEmail("user" + i + "@example.com");
+                profile.setSkills(new ArrayList<>(List.of(skill)));
+                profiles.add(profile);
+            }
+            userProfileRepository.saveAll(profiles);
+        });
+
+        // Best match first: Go, SQL, Docker
+        List<Courses> ranked = List.of(courses.get(2), courses.get(0), courses.get(1));
+        when(recommendationService.recommend(any(UserProfile.class), anyInt()))
+                .thenReturn(new CourseSkillIndex.TopCourses(ranked, ranked.size()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            userRecommendationRepository.deleteAllInBatch();
+            userProfileRepository.deleteAll();
+            coursesRepository.deleteAll();
+        });
+    }
+
+    @Test
+    public void testRunMaterializesEveryUsersRecommendations() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        RecommendationRun run = recommendationReportService.run().orElseThrow();
+
+        assertEquals(USERS, run.getUsers());
+        assertNotNull(run.getFinishedAt());
+        assertTrue(run.getUsersPerSecond() > 0);
+        assertEquals(USERS * 3L, userRecommendationRepository.count());
+        // One query per 100 profiles' skills, not one per profile
+        assertEquals(USERS / 100, statistics.getCollectionFetchCount());
+
+        List<String> titles = recommendationReportService.reportFor("user7@example.com").stream()
+                .map(Courses::getCourseTitle)
+                .toList();
+        assertEquals(List.of("Go", "SQL", "Docker"), titles);
+    }
+
+    @Test
+    public void testNewRunReplacesPreviousResults() {
+        RecommendationRun first = recommendationReportService.run().orElseThrow();
+        RecommendationRun second = recommendationReportService.run().orElseThrow();
+
+        assertTrue(second.getId() > first.getId());
+        assertEquals(second.getId(), recommendationReportService.latestRun().orElseThrow().getId());
+        assertEquals(USERS * 3L, userRecommendationRepository.count());
+    }
+
+    @Test
+    public void testFinishedRunKeepsRowsOfLaterRuns() {
+        RecommendationRun first = recommendationReportService.run().orElseThrow();
+        // A run started after it on another instance, still inserting
+        jdbcTemplate.update("insert into user_recommendation (run_id, user_email, course_rank, course_id) values (?, ?, ?, ?)",
+                first.getId() + 100, "user1@example.com", 1, courses.get(0).getId());
+
+        recommendationReportService.run().orElseThrow();
+
+        assertEquals(USERS * 3L + 1, userRecommendationRepository.count());
+    }
+
+    @Test
+    public void testScheduleIsOffUnlessEnabled() {
+        Optional<Long> before = recommendationReportService.latestRun().map(RecommendationRun::getId);
+
+        recommendationReportService.scheduledRun();
+
+        assertEquals(before, recommendationReportService.latestRun().map(RecommendationRun::getId));
+        assertEquals(0, userRecommendationRepository.count());
+    }
+}
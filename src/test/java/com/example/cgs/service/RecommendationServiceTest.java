@@ -0,0 +1,149 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Courses;
+import com.example.cgs.entities.Skill;
+import com.example.cgs.entities.UserProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RecommendationServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private RecommendationService service;
+
+    private CourseSkillIndex index;
+
+    private UserProfileService userProfileService;
+
+    private UserProfile profile;
+
+    private static List<Skill> skills(String... names) {
+        List<Skill> list = new ArrayList<>();
+        for (String name : names) {
+            Skill skill = new Skill();
+            skill.setSkill(name);
+            list.add(skill);
+        }
+        return list;
+    }
+
+    private static Courses course(long id, String... skills) {
+        Courses course = new Courses();
+        course.setId(id);
+        course.setSkills(skills(skills));
+        return course;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        index = new CourseSkillIndex();
+        index.put(course(1L, "Java"));
+        index.put(course(2L, "SQL"));
+
+        profile = new UserProfile();
+        profile.setEmail(EMAIL);
+        profile.setSkills(skills("Java"));
+        userProfileService = mock(UserProfileService.class);
+        when(userProfileService.getUserProfileByEmail(EMAIL)).thenAnswer(invocation -> profile);
+
+        CareerGoalResolver resolver = mock(CareerGoalResolver.class);
+        when(resolver.resolve(any())).thenReturn(Optional.empty());
+        JobSkillsCatalog catalog = mock(JobSkillsCatalog.class);
+
+        service = new RecommendationService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "userProfileService", userProfileService);
+        ReflectionTestUtils.setField(service, "courseSkillIndex", index);
+        ReflectionTestUtils.setField(service, "careerGoalResolver", resolver);
+        ReflectionTestUtils.setField(service, "jobSkillsCatalog", catalog);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    private List<Long> ids(List<Courses> courses) {
+        return courses.stream().map(Courses::getId).toList();
+    }
+
+    @Test
+    public void testRepeatedReadsAreServedFromCache() {
+        assertEquals(List.of(2L), ids(service.recommendationsFor(EMAIL)));
+        assertEquals(List.of(2L), ids(service.recommendationsFor(EMAIL)));
+
+        verify(userProfileService, times(1)).getUserProfileByEmail(EMAIL);
+    }
+
+    @Test
+    public void testProfileChangeIsVisibleOnNextRead() {
+        service.recommendationsFor(EMAIL);
+
+        profile.setSkills(skills("SQL"));
+        service.profileChanged(EMAIL);
+
+        assertEquals(List.of(1L), ids(service.recommendationsFor(EMAIL)));
+    }
+
+    @Test
+    public void testCatalogChangeRefreshesInBackground() {
+        service.recommendationsFor(EMAIL);
+
+        index.put(course(3L, "Docker"));
+
+        // The previous result is served while the new one is computed
+        assertEquals(List.of(2L), ids(service.recommendationsFor(EMAIL)));
+        verify(userProfileService, timeout(5000).times(2)).getUserProfileByEmail(EMAIL);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (!ids(service.recommendationsFor(EMAIL)).equals(List.of(2L, 3L))) {
+                Thread.sleep(10);
+            }
+        });
+    }
+
+    @Test
+    public void testDeletedCoursesAreDroppedFromStaleResults() {
+        index.put(course(3L, "SQL"));
+        assertEquals(List.of(2L, 3L), ids(service.recommendationsFor(EMAIL)));
+
+        index.remove(2L);
+
+        // Served from the stale result, without the deleted course
+        CourseSkillIndex.TopCourses page = service.recommendationsFor(EMAIL, 0, 10);
+        assertEquals(List.of(3L), ids(page.courses()));
+        assertEquals(1, page.total());
+    }
+
+    @Test
+    public void testPagesBeyondCachedDepthAreRankedDeeper() {
+        for (long id = 3; id <= 2 * RecommendationService.MIN_DEPTH; id++) {
+            index.put(course(id, "SQL"));
+        }
+
+        CourseSkillIndex.TopCourses first = service.recommendationsFor(EMAIL, 0, 10);
+        assertEquals(List.of(2L, 3L, 4L), ids(first.courses()).subList(0, 3));
+        assertEquals(10, first.courses().size());
+        assertEquals(99, first.total());
+
+        // Within the cached depth: no new computation
+        service.recommendationsFor(EMAIL, 40, 10);
+        verify(userProfileService, times(1)).getUserProfileByEmail(EMAIL);
+
+        CourseSkillIndex.TopCourses last = service.recommendationsFor(EMAIL, 90, 20);
+        assertEquals(List.of(92L, 93L, 94L, 95L, 96L, 97L, 98L, 99L, 100L), ids(last.courses()));
+        assertEquals(99, last.total());
+        verify(userProfileService, times(2)).getUserProfileByEmail(EMAIL);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.cgs.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoringEngineTest {
+
+    private final ScoringEngine sequential = new ScoringEngine(1, Integer.MAX_VALUE);
+
+    // Splits anything into chunks, so small matrices exercise the fork-join path
+    private final ScoringEngine parallel = new ScoringEngine(4, 1);
+
+    @AfterEach
+    public void tearDown() {
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    private static SkillMatrix randomMatrix(int size, int skills, long seed) {
+        Random random = new Random(seed);
+        long[][] rows = new long[size][];
+        for (int i = 0; i < size; i++) {
+            rows[i] = new long[(skills + 63) / 64];
+            for (int n = random.nextInt(6); n > 0; n--) {
+                int skill = random.nextInt(skills);
+                rows[i][skill >>> 6] |= 1L << skill;
+            }
+        }
+        return new SkillMatrix(rows);
+    }
+
+    @Test
+    public void testParallelRankingMatchesSequential() {
+        SkillMatrix matrix = randomMatrix(40_000, 300, 3);
+        long[] target = {-1L, 0L, 0x00FF00FF00FF00FFL, -1L, 0xFL};
+
+        for (int limit : new int[]{0, 1, 10, 1_000, Integer.MAX_VALUE}) {
+            ScoringEngine.Ranked expected = sequential.rank(matrix, target, limit);
+            ScoringEngine.Ranked actual = parallel.rank(matrix, target, limit);
+
+            assertArrayEquals(expected.keys(), actual.keys(), "limit " + limit);
+            assertEquals(expected.total(), actual.total());
+        }
+    }
+
+    @Test
+    public void testRankingOrdersByScoreThenPosition() {
+        long[][] rows = {{0b011}, {0b111}, {0b100}, {0b000}, {0b011}};
+        ScoringEngine.Ranked ranked = parallel.rank(new SkillMatrix(rows), new long[]{0b111}, 10);
+
+        int[] positions = Arrays.stream(ranked.keys()).mapToInt(ScoringEngine.Ranked::positionOf).toArray();
+        assertArrayEquals(new int[]{1, 0, 4, 2}, positions);
+        assertEquals(4, ranked.total());
+    }
+
+    @Test
+    public void testRankingIsMeteredOnTheGivenRegistry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ScoringEngine engine = new ScoringEngine(registry, 1, Integer.MAX_VALUE);
+        try {
+            engine.rank(randomMatrix(100, 64, 5), new long[]{-1L}, 10);
+        } finally {
+            engine.shutdown();
+        }
+
+        assertEquals(1, registry.get("cgs.scoring.rank").tag("mode", "sequential").timer().count());
+        assertEquals(100.0, registry.get("cgs.scoring.items").summary().totalAmount());
+    }
+}
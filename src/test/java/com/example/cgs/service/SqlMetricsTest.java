@@ -0,0 +1,118 @@
+package com.example.cgs.service;
+
+import com.example.cgs.config.SqlInstrumentationConfig;
+import com.example.cgs.config.SqlTimingFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "cgs.sql.n-plus-one-threshold=10")
+@Import({SqlInstrumentationConfig.class, SqlMetrics.class})
+public class SqlMetricsTest {
+
+    @Autowired
+    private SqlMetrics sqlMetrics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void unbind() {
+        RequestSqlStats.restore(null);
+    }
+
+    @Test
+    public void testRepeatedStatementShapeIsFlaggedAsNPlusOne() {
+        RequestSqlStats stats = new RequestSqlStats();
+        RequestSqlStats.bind(stats);
+        // Literal IDs differ, the shape does not
+        for (int id = 1; id <= 11; id++) {
+            jdbcTemplate.queryForObject("select count(*) from courses where id = " + id, Long.class);
+        }
+        jdbcTemplate.queryForObject("select count(*) from job_posting", Long.class);
+        sqlMetrics.requestFinished("CourseController.getCourse", stats);
+
+        assertEquals(12, stats.getQueries());
+        assertEquals(11, stats.getRepeatedCount());
+        assertEquals("select count(*) from courses where id = ?", stats.getRepeatedShape());
+
+        Map<String, Object> endpoint = sqlMetrics.worstEndpoints(5).get(0);
+        assertEquals("CourseController.getCourse", endpoint.get("endpoint"));
+        assertEquals(12L, endpoint.get("queries"));
+        assertEquals(1L, endpoint.get("nPlusOneRequests"));
+    }
+
+    @Test
+    public void testWorstEndpointsAreSortedWhileRequestsFinish() throws Exception {
+        SqlMetrics metrics = new SqlMetrics(10);
+        for (int i = 0; i < 200; i++) {
+            RequestSqlStats stats = new RequestSqlStats();
+            stats.record("select 1", 1_000L * i);
+            metrics.requestFinished("Endpoint" + i, stats);
+        }
+
+        // Other requests keep adding to the totals being ranked
+        AtomicBoolean done = new AtomicBoolean();
+        Thread requests = new Thread(() -> {
+            Random random = new Random(1);
+            while (!done.get()) {
+                RequestSqlStats stats = new RequestSqlStats();
+                stats.record("select 1", random.nextInt(1_000_000));
+                metrics.requestFinished("Endpoint" + random.nextInt(200), stats);
+            }
+        });
+        requests.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                List<Map<String, Object>> worst = metrics.worstEndpoints(200);
+                assertEquals(200, worst.size());
+                for (int n = 1; n < worst.size(); n++) {
+                    assertTrue((double) worst.get(n - 1).get("totalDbMs") >= (double) worst.get(n).get("totalDbMs"));
+                }
+            }
+        } finally {
+            done.set(true);
+            requests.join();
+        }
+    }
+
+    @Test
+    public void testStatementsOutsideRequestsAreNotCounted() {
+        RequestSqlStats stats = new RequestSqlStats();
+        jdbcTemplate.queryForObject("select count(*) from courses", Long.class);
+
+        RequestSqlStats.bind(stats);
+        jdbcTemplate.queryForObject("select count(*) from playlist", Long.class);
+
+        assertEquals(1, stats.getQueries());
+        assertEquals("select count(*) from playlist", stats.getSlowestSql());
+    }
+
+    @Test
+    public void testServerTimingReportsTheRequestsStatements() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlTimingFilter(sqlMetrics).doFilter(new MockHttpServletRequest("GET", "/api/courses"), response, (req, res) -> {
+            jdbcTemplate.queryForObject("select count(*) from courses", Long.class);
+            jdbcTemplate.queryForObject("select count(*) from playlist", Long.class);
+            res.getWriter().write("[]");
+        });
+
+        String timing = response.getHeader("Server-Timing");
+        assertNotNull(timing);
+        assertTrue(timing.matches("db;dur=\\d+\\.\\d;desc=\"2 queries\", db-slowest;dur=\\d+\\.\\d"), timing);
+        assertNull(RequestSqlStats.current());
+    }
+}
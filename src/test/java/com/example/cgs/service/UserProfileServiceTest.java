@@ -0,0 +1,120 @@
+package com.example.cgs.service;
+
+import com.example.cgs.entities.Skill;
+import com.example.cgs.entities.UserProfile;
+import com.example.cgs.entities.Users;
+import com.example.cgs.repositories.UserProfileRepository;
+import com.example.cgs.repositories.UsersRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each lookup runs in its own committed transaction, as it would across requests
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({UserProfileService.class, UserIdentityService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserProfileServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    private TransactionTemplate transaction;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        userIdentityService.evict(EMAIL);
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            userProfileRepository.deleteAll();
+            usersRepository.deleteAll();
+        });
+    }
+
+    private void saveProfile(String... skillNames) {
+        List<Skill> skills = new ArrayList<>();
+        for (String name : skillNames) {
+            Skill skill = new Skill();
+            skill.setSkill(name);
+            skills.add(skill);
+        }
+        UserProfile profile = new UserProfile();
+        profile.setEmail(EMAIL);
+        profile.setSkills(skills);
+        transaction.executeWithoutResult(status -> userProfileRepository.save(profile));
+    }
+
+    @Test
+    public void testWarmLookupRunsNoQueries() {
+        saveProfile("Java", "SQL");
+        assertEquals(2, userProfileService.getUserProfileByEmail(EMAIL).getSkills().size());
+        statistics.clear();
+
+        UserProfile profile = userProfileService.getUserProfileByEmail(EMAIL);
+
+        assertEquals(2, profile.getSkills().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    public void testProfileCreatedAfterLookupIsFoundOnceEvicted() {
+        assertNull(userProfileService.getUserProfileByEmail(EMAIL));
+
+        saveProfile("Java");
+        userIdentityService.evict(EMAIL);
+
+        assertNotNull(userProfileService.getUserProfileByEmail(EMAIL));
+    }
+
+    @Test
+    public void testEmailIsUniqueAcrossUsers() {
+        Users first = new Users();
+        first.setEmail(EMAIL);
+        usersRepository.save(first);
+
+        Users second = new Users();
+        second.setEmail(EMAIL);
+        assertThrows(DataIntegrityViolationException.class, () -> usersRepository.save(second));
+    }
+}